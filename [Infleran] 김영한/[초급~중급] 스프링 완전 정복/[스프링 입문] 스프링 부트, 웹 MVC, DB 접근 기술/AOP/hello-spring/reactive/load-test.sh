@@ -0,0 +1,29 @@
+#!/bin/bash
+# hello-spring(Spring MVC + JPA, 8080) 과 reactive(WebFlux + R2DBC, 8081) 를 같은 JVM 옵션, 같은 메모리 H2 로
+# 하나씩 띄우고 같은 부하를 준다. (두 애플리케이션이 CPU 를 나눠 쓰지 않도록 차례로 실행)
+# 사용법: reactive/load-test.sh [search|join|list] [동시 요청 수] [측정 시간(초)]
+set -e
+cd "$(dirname "$0")/.."
+
+SCENARIO=${1:-search}
+CONCURRENCY=${2:-1000}
+DURATION=${3:-30}
+JVM_OPTS=${JVM_OPTS:--Xms1g -Xmx1g}
+
+./gradlew -q bootJar :reactive:bootJar :reactive:loadTestClasses
+
+run() {
+  local name=$1 port=$2; shift 2
+  java $JVM_OPTS -jar "$@" > "build/load-test-$name.log" 2>&1 &
+  local pid=$!
+  until curl -s -o /dev/null "http://localhost:$port/"; do sleep 1; done
+  ./gradlew -q :reactive:loadTest -PbaseUrl="http://localhost:$port" -Pscenario="$SCENARIO" \
+      -Pconcurrency="$CONCURRENCY" -Pduration="$DURATION"
+  kill $pid
+  wait $pid || true
+}
+
+run mvc 8080 build/libs/hello-spring-0.0.1-SNAPSHOT.jar \
+    --spring.datasource.url='jdbc:h2:mem:load;DB_CLOSE_DELAY=-1' \
+    --spring.jpa.hibernate.ddl-auto=create --spring.jpa.show-sql=false
+run reactive 8081 reactive/build/libs/reactive-0.0.1-SNAPSHOT.jar
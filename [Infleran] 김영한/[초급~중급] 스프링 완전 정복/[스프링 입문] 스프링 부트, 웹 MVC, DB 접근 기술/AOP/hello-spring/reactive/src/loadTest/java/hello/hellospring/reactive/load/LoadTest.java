@@ -0,0 +1,153 @@
+package hello.hellospring.reactive.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    hello-spring 과 reactive 모듈에 같은 부하를 주는 간단한 부하 발생기.
+    - concurrency 개의 요청을 항상 동시에 보내고 있도록, 응답을 받으면 바로 다음 요청을 보낸다. (closed model)
+    - 처음 warm-up 동안은 측정하지 않고, 그 뒤 duration 초 동안의 처리량과 응답 시간 분포를 출력한다.
+    - 두 애플리케이션 모두 같은 URL 을 제공한다.
+        search : GET  /members/search?prefix=member1&limit=10
+        join   : POST /members/new (매번 새로운 이름)
+        list   : GET  /members/all (전체 회원 목록을 DB 에서 읽는 대로 렌더링한 HTML)
+    hello-spring 의 /members 는 렌더링 결과를 캐시한 20명짜리 페이지이므로, 전체 목록을 렌더링하는 /members/all 끼리 비교한다.
+
+    java LoadTest <baseUrl> <search|join|list> <concurrency> <duration 초>
+ */
+public class LoadTest {
+
+    private static final int SEED_MEMBERS = 1000;
+    private static final Duration WARM_UP = Duration.ofSeconds(10);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String baseUrl;
+    private final String scenario;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    public LoadTest(String baseUrl, String scenario) {
+        this.baseUrl = baseUrl;
+        this.scenario = scenario;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081";
+        String scenario = args.length > 1 ? args[1] : "search";
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int durationSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        new LoadTest(baseUrl, scenario).run(concurrency, Duration.ofSeconds(durationSeconds));
+    }
+
+    void run(int concurrency, Duration duration) throws Exception {
+        seed();
+
+        User[] users = new User[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            users[i] = new User();
+            users[i].next();
+        }
+        Thread.sleep(WARM_UP.toMillis());
+        recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+        running = false;
+
+        long[] latencies = new long[0];
+        long errors = 0;
+        for (User user : users) {
+            synchronized (user) {
+                int from = latencies.length;
+                latencies = Arrays.copyOf(latencies, from + user.count);
+                System.arraycopy(user.latencies, 0, latencies, from, user.count);
+                errors += user.errors;
+            }
+        }
+        Arrays.sort(latencies);
+        double seconds = elapsed / 1e9;
+        System.out.printf("%s %s concurrency=%d duration=%.0fs%n", baseUrl, scenario, concurrency, seconds);
+        System.out.printf("  requests=%d errors=%d throughput=%.0f req/s%n", latencies.length, errors, latencies.length / seconds);
+        System.out.printf("  latency(ms) p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    // 검색, 목록 결과가 비어있지 않도록 회원을 미리 가입시킨다. (이미 있으면 중복 오류로 무시된다)
+    private void seed() {
+        for (int i = 0; i < SEED_MEMBERS; i++) {
+            client.sendAsync(join("member" + i), HttpResponse.BodyHandlers.discarding()).join();
+        }
+    }
+
+    private HttpRequest request() {
+        switch (scenario) {
+            case "search":
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/members/search?prefix=member1&limit=10")).build();
+            case "join":
+                return join("load" + sequence.incrementAndGet());
+            case "list":
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/members/all")).build();
+            default:
+                throw new IllegalArgumentException("알 수 없는 scenario: " + scenario);
+        }
+    }
+
+    private HttpRequest join(String name) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/members/new"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("name=" + name))
+                .build();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    // 요청을 하나씩 차례로 보내는 가상 사용자. 응답 처리는 HttpClient 의 스레드에서 한다.
+    private class User {
+        long[] latencies = new long[1024];
+        int count;
+        long errors;
+
+        void next() {
+            if (!running) {
+                return;
+            }
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse<Void>> response = client.sendAsync(request(), HttpResponse.BodyHandlers.discarding());
+            response.whenComplete((r, e) -> {
+                record(System.nanoTime() - start, e != null || r.statusCode() >= 400);
+                next();
+            });
+        }
+
+        synchronized void record(long latency, boolean error) {
+            if (!recording) {
+                return;
+            }
+            if (error) {
+                errors++;
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package hello.hellospring.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveHelloSpringApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveHelloSpringApplication.class, args);
+	}
+
+}
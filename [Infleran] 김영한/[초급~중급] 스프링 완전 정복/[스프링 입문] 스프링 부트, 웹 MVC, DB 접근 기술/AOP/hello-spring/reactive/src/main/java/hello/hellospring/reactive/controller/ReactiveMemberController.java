@@ -0,0 +1,81 @@
+package hello.hellospring.reactive.controller;
+
+import hello.hellospring.reactive.domain.Member;
+import hello.hellospring.reactive.service.ReactiveMemberService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.thymeleaf.spring5.context.webflux.ReactiveDataDriverContextVariable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Controller
+public class ReactiveMemberController {
+    // 회원 목록을 렌더링할 때 DB 에 한 번에 요청하는 회원 수
+    private static final int LIST_BUFFER_SIZE = 100;
+    private static final int MAX_SEARCH_LIMIT = 20;
+    private static final int MAX_PREFIX_LENGTH = 50;
+
+    private final ReactiveMemberService memberService;
+
+    public ReactiveMemberController(ReactiveMemberService memberService) {
+        this.memberService = memberService;
+    }
+
+    @GetMapping("/members/new")
+    public String createForm() {
+        return "members/createMemberform";
+    }
+
+    @PostMapping("/members/new")
+    public Mono<String> create(MemberForm form) {
+        Member member = new Member();
+        member.setName(form.getName());
+
+        return memberService.join(member)
+                .thenReturn("redirect:/");
+    }
+
+    /*
+        전체 회원 목록. Thymeleaf 의 data-driven 모드로, 회원을 LIST_BUFFER_SIZE 명 받을 때마다 그만큼 렌더링해서 내보낸다.
+        클라이언트가 느리면 다음 회원을 요청하지 않으므로, 회원 수와 상관없이 메모리 사용량이 일정하다.
+        /members/all 은 hello-spring 의 전체 목록과 같은 URL 이다. (LoadTest 의 list 시나리오)
+     */
+    @GetMapping({"/members", "/members/all"})
+    public String list(Model model) {
+        model.addAttribute("members", new ReactiveDataDriverContextVariable(memberService.findMembers(), LIST_BUFFER_SIZE));
+        return "members/memberList";
+    }
+
+    // 같은 목록을 한 줄에 회원 한 명씩 json 으로 (application/stream+json)
+    @GetMapping(value = "/api/members", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+    @ResponseBody
+    public Flux<Member> streamMembers() {
+        return memberService.findMembers();
+    }
+
+    @GetMapping("/api/members/{id}")
+    @ResponseBody
+    public Mono<ResponseEntity<Member>> findOne(@PathVariable("id") Long id) {
+        return memberService.findOne(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // hello-spring 의 /members/search 와 같은 제한을 둔다.
+    @GetMapping("/members/search")
+    @ResponseBody
+    public Flux<Member> search(@RequestParam(name = "prefix") String prefix,
+                               @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        if (prefix.isEmpty() || prefix.length() > MAX_PREFIX_LENGTH) {
+            return Flux.empty();
+        }
+        return memberService.searchMembers(prefix, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
+    }
+}
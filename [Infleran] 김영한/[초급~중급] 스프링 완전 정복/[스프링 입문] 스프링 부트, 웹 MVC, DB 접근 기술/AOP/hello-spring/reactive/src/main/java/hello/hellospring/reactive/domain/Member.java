@@ -0,0 +1,29 @@
+package hello.hellospring.reactive.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+// R2DBC 는 JPA 가 아니므로 @Entity 대신 Spring Data 의 @Table, @Id 를 사용한다. (테이블은 hello-spring 과 같다)
+@Table("member")
+public class Member {
+
+    @Id
+    private Long id;
+    private String name;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,40 @@
+package hello.hellospring.reactive.repository;
+
+import hello.hellospring.reactive.domain.Member;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+    R2DBC 리포지토리. 모든 메소드가 Mono / Flux 를 반환하고, 구독할 때 쿼리가 실행된다.
+    Flux 는 구독자가 request 한 만큼만 행을 받아오므로 (backpressure), 전체 목록도 한 번에 메모리에 올리지 않는다.
+ */
+public interface ReactiveMemberRepository extends ReactiveCrudRepository<Member, Long> {
+
+    @Query("select * from member where name = :name limit 1")
+    Mono<Member> findByName(String name);
+
+    @Query("select * from member order by id")
+    Flux<Member> findAllOrderById();
+
+    @Query("select * from member where name like :pattern escape '\\' order by name limit :limit")
+    Flux<Member> findByNameLike(String pattern, int limit);
+
+    // hello-spring 의 searchByNamePrefix 와 같다. 입력한 %, _ 는 문자 그대로 비교한다.
+    default Flux<Member> searchByNamePrefix(String prefix, int limit) {
+        return findByNameLike(escapeLike(prefix) + "%", limit);
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
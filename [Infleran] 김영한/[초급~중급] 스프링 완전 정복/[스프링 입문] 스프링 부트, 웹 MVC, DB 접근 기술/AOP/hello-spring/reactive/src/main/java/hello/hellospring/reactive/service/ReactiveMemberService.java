@@ -0,0 +1,62 @@
+package hello.hellospring.reactive.service;
+
+import hello.hellospring.reactive.domain.Member;
+import hello.hellospring.reactive.repository.ReactiveMemberRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+    hello-spring 의 MemberService 와 같은 기능을 non-blocking 으로.
+    메소드는 바로 반환하고, 실제 작업은 반환한 Mono / Flux 를 구독할 때 실행된다.
+ */
+@Service
+@Transactional
+public class ReactiveMemberService {
+
+    private final ReactiveMemberRepository memberRepository;
+
+    public ReactiveMemberService(ReactiveMemberRepository memberRepository) {
+        this.memberRepository = memberRepository;
+    }
+
+    /*
+        회원 가입
+        조회와 저장 사이에 같은 이름으로 가입한 요청은 member_name_idx(unique) 에서 막힌다.
+        hello-spring 의 MemberService 처럼 그 경우도 같은 중복 회원 예외로 바꾼다.
+     */
+    public Mono<Long> join(Member member) {
+        return validateDuplicateMember(member)
+                .then(memberRepository.save(member))
+                .onErrorMap(DataIntegrityViolationException.class, e -> new IllegalStateException("이미 존재하는 회원입니다.", e))
+                .map(Member::getId);
+    }
+
+    private Mono<Void> validateDuplicateMember(Member member) {
+        if (member.getName() == null) {
+            return Mono.empty();
+        }
+        return memberRepository.findByName(member.getName())
+                .flatMap(m -> Mono.error(new IllegalStateException("이미 존재하는 회원입니다.")));
+    }
+
+    /*
+        전체 회원 조회 (id 순). 구독자가 요청하는 만큼씩 DB 에서 읽어온다.
+     */
+    @Transactional(readOnly = true)
+    public Flux<Member> findMembers() {
+        return memberRepository.findAllOrderById();
+    }
+
+    @Transactional(readOnly = true)
+    public Flux<Member> searchMembers(String prefix, int limit) {
+        return memberRepository.searchByNamePrefix(prefix, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<Member> findOne(Long memberId) {
+        return memberRepository.findById(memberId);
+    }
+}
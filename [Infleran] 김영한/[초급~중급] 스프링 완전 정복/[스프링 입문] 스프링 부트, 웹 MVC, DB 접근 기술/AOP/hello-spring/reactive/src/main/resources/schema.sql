@@ -0,0 +1,8 @@
+-- hello-spring 의 sql/ddl.sql 과 같은 스키마 (이미 있으면 그대로 둔다)
+create sequence if not exists member_seq start with 1 increment by 50;
+create table if not exists member(
+    id bigint default next value for member_seq,
+    name varchar(255),
+    primary key (id)
+);
+create unique index if not exists member_name_idx on member(name);
@@ -0,0 +1,85 @@
+package hello.hellospring.reactive.service;
+
+import hello.hellospring.reactive.domain.Member;
+import hello.hellospring.reactive.repository.ReactiveMemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ReactiveMemberServiceTest {
+
+    @Autowired ReactiveMemberService memberService;
+    @Autowired ReactiveMemberRepository memberRepository;
+
+    @BeforeEach
+    void beforeEach() {
+        memberRepository.deleteAll().block();
+    }
+
+    @Test
+    void 회원가입() {
+        Member member = createMember("spring");
+
+        StepVerifier.create(memberService.join(member).flatMap(memberService::findOne))
+                .expectNextMatches(found -> found.getName().equals("spring") && found.getId().equals(member.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void 중복_회원_예외() {
+        StepVerifier.create(memberService.join(createMember("spring"))
+                        .then(memberService.join(createMember("spring"))))
+                .expectErrorMessage("이미 존재하는 회원입니다.")
+                .verify();
+    }
+
+    @Test
+    void 같은_이름으로_동시에_가입해도_중복_회원_예외() {
+        Mono<String> join = Mono.defer(() -> memberService.join(createMember("spring")))
+                .map(id -> "joined")
+                .onErrorResume(IllegalStateException.class, e -> Mono.just(e.getMessage()))
+                .subscribeOn(Schedulers.parallel());
+
+        StepVerifier.create(Flux.merge(join, join).collectList())
+                .assertNext(results -> assertThat(results).containsExactlyInAnyOrder("joined", "이미 존재하는 회원입니다."))
+                .verifyComplete();
+    }
+
+    @Test
+    void 전체_회원은_요청한_만큼씩_받는다() {
+        Flux.range(0, 10).concatMap(i -> memberService.join(createMember("spring" + i))).blockLast();
+
+        StepVerifier.create(memberService.findMembers(), 3)
+                .expectNextCount(3)
+                .thenRequest(7)
+                .expectNextCount(7)
+                .verifyComplete();
+    }
+
+    @Test
+    void 이름_prefix_검색() {
+        Flux.just("spring", "springboot", "summer", "a_b", "axb")
+                .concatMap(name -> memberService.join(createMember(name))).blockLast();
+
+        StepVerifier.create(memberService.searchMembers("spr", 10).map(Member::getName))
+                .expectNext("spring", "springboot")
+                .verifyComplete();
+        StepVerifier.create(memberService.searchMembers("a_", 10).map(Member::getName))
+                .expectNext("a_b")
+                .verifyComplete();
+    }
+
+    private Member createMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        return member;
+    }
+}
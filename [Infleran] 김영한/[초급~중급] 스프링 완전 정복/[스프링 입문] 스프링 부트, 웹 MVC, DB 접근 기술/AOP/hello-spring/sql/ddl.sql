@@ -1,6 +1,12 @@
 drop table if exists member CASCADE;
+drop sequence if exists member_seq;
+-- Member 엔티티의 @SequenceGenerator(allocationSize = 50) 와 increment 값을 맞춰야 한다.
+create sequence member_seq start with 1 increment by 50;
 create table member(
-    id bigint generated by default as identity,
+    id bigint default next value for member_seq,
     name varchar(255),
     primary key (id)
-);
\ No newline at end of file
+);
+-- findByName, 이름 prefix 검색(like 'spr%')용 인덱스
+-- unique 이므로 같은 이름으로 동시에 가입해도 한 명만 저장된다. (MemberService.join)
+create unique index member_name_idx on member(name);
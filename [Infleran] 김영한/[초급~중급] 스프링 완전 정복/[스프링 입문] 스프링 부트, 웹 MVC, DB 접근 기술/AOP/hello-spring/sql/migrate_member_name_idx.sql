@@ -0,0 +1,2 @@
+-- 기존 member 테이블에 이름 인덱스를 추가한다. (이름 prefix 검색, findByName)
+create index if not exists member_name_idx on member(name);
@@ -0,0 +1,5 @@
+-- 기존 member_name_idx 를 unique 인덱스로 바꾼다. (같은 이름의 회원이 두 명 저장되지 않도록)
+-- 이미 같은 이름의 회원이 있으면 인덱스를 만들 수 없으므로, 먼저 아래 조회로 확인하고 정리한다.
+-- select name, count(*) from member group by name having count(*) > 1;
+drop index if exists member_name_idx;
+create unique index member_name_idx on member(name);
@@ -0,0 +1,7 @@
+-- identity 컬럼으로 만든 기존 member 테이블을 member_seq 시퀀스로 바꾼다. (데이터 유지)
+-- Hibernate 의 pooled-lo optimizer 는 시퀀스 값 v 부터 v + 49 까지를 한 번에 사용하므로,
+-- 시퀀스를 기존 최대 id 다음 값부터 시작해야 id 가 겹치지 않는다.
+create sequence if not exists member_seq start with 1 increment by 50;
+alter sequence member_seq restart with (select coalesce(max(id), 0) + 1 from member);
+-- JDBC / JdbcTemplate 리포지토리는 id 없이 insert 하므로 기본값을 시퀀스로 바꾼다.
+alter table member alter column id bigint default next value for member_seq;
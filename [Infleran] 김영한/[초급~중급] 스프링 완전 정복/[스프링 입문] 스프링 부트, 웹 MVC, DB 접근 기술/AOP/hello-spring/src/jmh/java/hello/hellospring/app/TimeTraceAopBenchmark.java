@@ -0,0 +1,92 @@
+package hello.hellospring.app;
+
+import hello.hellospring.domain.Member;
+import hello.hellospring.repository.MemberRepository;
+import hello.hellospring.repository.MemoryMemberRepository;
+import hello.hellospring.service.MemberService;
+import org.aspectj.lang.Aspects;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    MemberService.join / findMembers 한 번 호출에 TimeTraceAop 가 더하는 비용을 비교한다.
+    - none  : aspect 없이 MemberService 를 직접 호출 (기준값)
+    - proxy : Spring 과 같은 방식으로 AspectJProxyFactory 프록시를 거쳐 호출 (위빙과 같은 범위가 되도록 repository 도 프록시로 감싼다)
+    - woven : MemberService 를 직접 호출하되, 바이트코드에 위빙된 advice 가 실행된다.
+    위빙된 빌드에서 none / proxy 를 재면 advice 가 한 번 더 실행되므로 의미가 없다.
+    그래서 build.gradle 이 -Paop 에 맞는 aopMode 만 넘긴다. (-Paop=proxy : none, proxy / -Paop=ctw, ltw : woven)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeTraceAopBenchmark {
+
+    // MemberControllerLoadBenchmark 의 mode 와 겹치지 않도록 이름을 따로 쓴다. (build.gradle 의 benchmarkParameters 는 모든 벤치마크에 적용된다)
+    @Param({"none", "proxy", "woven"})
+    String aopMode;
+
+    MemoryMemberRepository repository;
+    MemberService memberService;
+    final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new MemoryMemberRepository();
+        // 샘플링은 끄고 히스토그램 기록 비용만 비교한다.
+        LatencyRegistry latencyRegistry = new LatencyRegistry();
+        CallTreeProfiler callTreeProfiler = new CallTreeProfiler(0.0);
+
+        switch (aopMode) {
+            case "none":
+                memberService = new MemberService(repository);
+                break;
+            case "proxy":
+                TimeTraceAop aspect = new TimeTraceAop(latencyRegistry, callTreeProfiler);
+                MemberRepository repositoryProxy = proxy(repository, aspect);
+                memberService = proxy(new MemberService(repositoryProxy), aspect);
+                break;
+            case "woven":
+                Aspects.aspectOf(TimeTraceAop.class).configure(latencyRegistry, callTreeProfiler);
+                memberService = new MemberService(repository);
+                break;
+            default:
+                throw new IllegalArgumentException("알 수 없는 aopMode: " + aopMode);
+        }
+    }
+
+    private static <T> T proxy(T target, TimeTraceAop aspect) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(aspect);
+        return proxyFactory.getProxy();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStore() {
+        repository.clearStore();
+        for (int i = 0; i < 100; i++) {
+            Member member = new Member();
+            member.setName("member" + i);
+            repository.save(member);
+        }
+    }
+
+    @Benchmark
+    public Long join() {
+        Member member = new Member();
+        member.setName("new-member" + sequence.incrementAndGet());
+        return memberService.join(member);
+    }
+
+    @Benchmark
+    public List<Member> findMembers() {
+        return memberService.findMembers();
+    }
+}
@@ -0,0 +1,178 @@
+package hello.hellospring.controller;
+
+import hello.hellospring.HelloSpringApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.servlet.Filter;
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    DB 가 느릴 때 POST /members/new 의 처리량과 Tomcat 요청 스레드 사용량을 비교하는 부하 테스트.
+    - 애플리케이션 전체를 띄우고, 64개의 JMH 스레드가 HTTP 로 동시에 가입 요청을 보낸다.
+    - 트랜잭션마다 커넥션을 잡은 채로 DB_LATENCY_MS 만큼 기다리게 해서 느린 DB 를 흉내낸다.
+    - 요청 스레드는 8개, 커넥션 풀과 memberExecutor 는 32개로 두어 요청 스레드가 병목이 되게 한다.
+    - mode
+      direct  : executor 없이 요청 스레드에서 join (기존 동기 방식과 같다)
+      bounded : member.executor.type=bounded, 32 스레드
+      virtual : JDK 21 이상에서만. -p mode=virtual 로 따로 실행한다.
+    iteration 이 끝날 때마다 평균적으로 사용 중이던 요청 스레드 수와, 요청 하나가 요청 스레드를 붙잡은 평균 시간을 출력한다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class MemberControllerLoadBenchmark {
+
+    static final long DB_LATENCY_MS = 20;
+    static final int REQUEST_THREADS = 8;
+
+    @Param({"direct", "bounded"})
+    String mode;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    URI uri;
+    final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(HelloSpringApplication.class, SlowDatabaseConfig.class)
+                // 다른 벤치마크의 설정 클래스가 component scan 되지 않도록 제외한다.
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("benchmarkExcludeFilter", new BenchmarkExcludeFilter()))
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + REQUEST_THREADS,
+                        "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=32",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--trace.sampling-rate=0",
+                        "--member.executor.type=" + mode,
+                        "--member.executor.threads=32",
+                        "--logging.level.root=warn");
+        String port = context.getEnvironment().getProperty("local.server.port");
+        uri = URI.create("http://localhost:" + port + "/members/new");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        SlowDatabaseConfig.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printRequestThreadUsage() {
+        long requests = Math.max(SlowDatabaseConfig.requests.get(), 1);
+        long elapsed = System.nanoTime() - SlowDatabaseConfig.startNanos;
+        System.out.printf("%n[%s] 평균 사용 중인 요청 스레드 %.2f / %d, 요청당 요청 스레드 점유 %.2f ms%n",
+                mode, SlowDatabaseConfig.busyNanos.get() / (double) elapsed, REQUEST_THREADS,
+                SlowDatabaseConfig.busyNanos.get() / (double) requests / 1_000_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int join() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("name=load-member" + sequence.incrementAndGet()))
+                .build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 302) {
+            throw new IllegalStateException("가입 실패: " + status);
+        }
+        return status;
+    }
+
+    static class BenchmarkExcludeFilter extends TypeExcludeFilter {
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getClassMetadata().getClassName().contains("Benchmark");
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj != null && getClass() == obj.getClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+    }
+
+    static class SlowDatabaseConfig {
+        static final AtomicLong busyNanos = new AtomicLong();
+        static final AtomicLong requests = new AtomicLong();
+        static volatile long startNanos;
+
+        static void reset() {
+            busyNanos.set(0);
+            requests.set(0);
+            startNanos = System.nanoTime();
+        }
+
+        // 커넥션을 얻은 뒤 DB_LATENCY_MS 동안 잡고 있는다. (트랜잭션마다 한 번)
+        @Bean
+        static BeanPostProcessor slowDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource((DataSource) bean) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            Connection connection = super.getConnection();
+                            try {
+                                Thread.sleep(DB_LATENCY_MS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return connection;
+                        }
+                    };
+                }
+            };
+        }
+
+        /*
+            요청 스레드가 filter chain 안에 머무는 동안을 "사용 중" 으로 센다. (async 요청은 startAsync 후 바로 반환된다)
+            filter 는 REQUEST dispatch 에만 적용되므로, 결과가 나온 뒤의 짧은 ASYNC dispatch(redirect 응답)는 빠진다.
+         */
+        @Bean
+        Filter requestThreadUsageFilter() {
+            return (request, response, chain) -> {
+                long start = System.nanoTime();
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    busyNanos.addAndGet(System.nanoTime() - start);
+                    requests.incrementAndGet();
+                }
+            };
+        }
+    }
+}
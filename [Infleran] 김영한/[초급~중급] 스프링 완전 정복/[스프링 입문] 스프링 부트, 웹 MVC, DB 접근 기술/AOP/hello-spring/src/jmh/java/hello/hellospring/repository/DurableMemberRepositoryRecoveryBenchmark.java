@@ -0,0 +1,79 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/*
+    DurableMemberRepository 를 다시 열 때(복구) 걸리는 시간을 회원 수에 따라 측정한다.
+    - snapshot : 모든 회원이 스냅샷에 들어 있는 경우 (memory-mapped file 을 순서대로 읽기만 한다)
+    - wal      : 스냅샷 없이 log 만 있는 경우 (레코드마다 CRC 를 확인한다)
+    한 번 여는 시간이 곧 측정값이므로 SingleShotTime 으로 여러 번 반복한다.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DurableMemberRepositoryRecoveryBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int memberCount;
+
+    @Param({"snapshot", "wal"})
+    String layout;
+
+    Path directory;
+    DurableMemberRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("member-recovery");
+        // 자동 스냅샷이 생기지 않도록 snapshotEvery 를 크게 둔다.
+        try (DurableMemberRepository repository = new DurableMemberRepository(directory, Long.MAX_VALUE)) {
+            List<Member> members = new ArrayList<>(1000);
+            for (int i = 1; i <= memberCount; i++) {
+                Member member = new Member();
+                member.setName("member" + i);
+                members.add(member);
+                if (members.size() == 1000) {
+                    repository.saveAll(members);
+                    members.clear();
+                }
+            }
+            repository.saveAll(members);
+            if (layout.equals("snapshot")) {
+                repository.snapshot();
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeRepository() throws IOException {
+        repository.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public DurableMemberRepository recover() {
+        repository = new DurableMemberRepository(directory, Long.MAX_VALUE);
+        return repository;
+    }
+}
@@ -0,0 +1,26 @@
+package hello.hellospring.repository;
+
+import javax.persistence.*;
+
+// MemberInsertBenchmark 에서 비교용으로 쓰는, 변경 전(IDENTITY) 의 Member 와 같은 엔티티
+@Entity
+@Table(name = "identity_member")
+public class IdentityMember {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
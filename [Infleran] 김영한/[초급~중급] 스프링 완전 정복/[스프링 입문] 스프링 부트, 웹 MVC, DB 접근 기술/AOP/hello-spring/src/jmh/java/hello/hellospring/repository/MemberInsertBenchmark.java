@@ -0,0 +1,112 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    회원 100,000 명을 JPA 로 한 트랜잭션에 저장하는 시간. (변경 전 / 후)
+    - identity : 변경 전 Member 와 같은 IDENTITY 엔티티. persist 할 때마다 insert 가 바로 실행되어 batch 가 되지 않는다.
+    - sequence : 지금의 Member (시퀀스 pooled-lo). SpringDataJpaMemberRepository.saveAll 이 50명씩 batch insert 한다.
+    두 경우 모두 50명마다 flush / clear 하고, hibernate.jdbc.batch_size=50 으로 실행한다.
+    batch 의 효과는 DB 왕복 횟수에서 나오므로, 실제 서비스처럼 H2 를 tcp 서버로 띄우고 loopback 으로 접속한다.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberInsertBenchmark {
+
+    static final int BATCH_SIZE = 50;
+
+    @Param({"identity", "sequence"})
+    String strategy;
+
+    @Param({"100000"})
+    int count;
+
+    Server server;
+    ConfigurableApplicationContext context;
+    TransactionTemplate tx;
+    JdbcTemplate jdbcTemplate;
+    EntityManager em;
+    SpringDataJpaMemberRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        context = new SpringApplicationBuilder(BenchmarkConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:insert-bench;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + BATCH_SIZE,
+                        "--spring.jpa.properties.hibernate.order_inserts=true",
+                        "--spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo",
+                        "--logging.level.root=warn");
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        em = context.getBean(EntityManager.class);
+        repository = context.getBean(SpringDataJpaMemberRepository.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("truncate table member");
+        jdbcTemplate.execute("truncate table identity_member");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public int insert() {
+        if ("identity".equals(strategy)) {
+            return tx.execute(status -> {
+                for (int i = 1; i <= count; i++) {
+                    IdentityMember member = new IdentityMember();
+                    member.setName("member" + i);
+                    em.persist(member);
+                    if (i % BATCH_SIZE == 0) {
+                        em.flush();
+                        em.clear();
+                    }
+                }
+                return count;
+            });
+        }
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Member member = new Member();
+            member.setName("member" + i);
+            members.add(member);
+        }
+        return tx.execute(status -> repository.saveAll(members).size());
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = {Member.class, IdentityMember.class})
+    static class BenchmarkConfig {
+    }
+}
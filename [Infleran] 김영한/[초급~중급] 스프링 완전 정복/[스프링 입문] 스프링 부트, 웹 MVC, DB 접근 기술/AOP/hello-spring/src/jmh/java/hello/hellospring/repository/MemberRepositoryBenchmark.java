@@ -0,0 +1,182 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/*
+    MemberRepository 구현체 5개를 같은 workload 로 비교한다.
+    - DB 는 내장 메모리 H2 를 사용하고, 모든 호출은 MemberService 처럼 트랜잭션 안에서 실행한다.
+    - Throughput(ops/ms) 과 SampleTime(p50, p90, p99 ...) 을 같이 측정하고, build.gradle 에서 gc profiler 를 켜서 할당률도 함께 본다.
+    - 스레드 수는 @Param 으로 줄 수 없으므로 ./gradlew jmh -PjmhThreads=4 처럼 실행할 때마다 바꿔준다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberRepositoryBenchmark {
+
+    @Param({"memory", "jdbc", "jdbcTemplate", "jpa", "springDataJpa"})
+    String backend;
+
+    @Param({"1000", "10000", "100000"})
+    int tableSize;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate tx;
+    JdbcTemplate jdbcTemplate;
+    MemberRepository repository;
+    // 시퀀스 id 는 1부터 연속이 아니므로, 미리 저장한 회원의 id 를 모아두고 그중에서 고른다.
+    long[] ids;
+    final AtomicLong saveSequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkConfig.class)
+                .web(WebApplicationType.NONE)
+                // application.properties 의 tcp 접속 설정보다 우선하도록 command line 인자로 넘긴다.
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=warn");
+        DataSource dataSource = context.getBean(DataSource.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // JDBC 구현체는 id 를 컬럼 기본값(시퀀스)에 맡기므로, Hibernate 가 만드는 스키마 대신 sql/ddl.sql 과 같은 스키마를 사용한다.
+        jdbcTemplate.execute("drop table if exists member");
+        jdbcTemplate.execute("drop sequence if exists member_seq");
+        jdbcTemplate.execute("create sequence member_seq start with 1 increment by 50");
+        jdbcTemplate.execute("create table member(id bigint default next value for member_seq, name varchar(255), primary key (id))");
+        repository = createRepository(dataSource);
+    }
+
+    private MemberRepository createRepository(DataSource dataSource) {
+        switch (backend) {
+            case "memory":
+                return new MemoryMemberRepository();
+            case "jdbc":
+                return new JdbcMemberRepository(dataSource);
+            case "jdbcTemplate":
+                return new JdbcTemplateMemberRepository(dataSource);
+            case "jpa":
+                return new JpaMemberRepository(context.getBean(EntityManager.class));
+            case "springDataJpa":
+                return context.getBean(SpringDataJpaMemberRepository.class);
+            default:
+                throw new IllegalArgumentException("알 수 없는 backend: " + backend);
+        }
+    }
+
+    /*
+        save 벤치마크가 테이블을 계속 키우기 때문에, 매 iteration 마다 tableSize 개의 회원으로 다시 맞춘다.
+     */
+    @Setup(Level.Iteration)
+    public void resetTable() {
+        if (repository instanceof MemoryMemberRepository) {
+            ((MemoryMemberRepository) repository).clearStore();
+        } else {
+            // Hibernate 가 미리 받아둔 시퀀스 구간과 겹치지 않도록 시퀀스는 되돌리지 않는다.
+            jdbcTemplate.update("delete from member");
+        }
+        ids = new long[tableSize];
+        tx.executeWithoutResult(status -> {
+            for (int i = 1; i <= tableSize; i++) {
+                Member member = new Member();
+                member.setName("member" + i);
+                ids[i - 1] = repository.save(member).getId();
+            }
+        });
+        saveSequence.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (repository instanceof MemoryMemberRepository) {
+            ((MemoryMemberRepository) repository).clearStore();
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public Member save() {
+        Member member = new Member();
+        member.setName("new-member" + saveSequence.incrementAndGet());
+        return tx.execute(status -> repository.save(member));
+    }
+
+    // 100명을 한 번에 저장 (JDBC 구현체는 statement batching 사용)
+    @Benchmark
+    public List<Member> saveAll() {
+        List<Member> members = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            Member member = new Member();
+            member.setName("new-member" + saveSequence.incrementAndGet());
+            members.add(member);
+        }
+        return tx.execute(status -> repository.saveAll(members));
+    }
+
+    @Benchmark
+    public Optional<Member> findById() {
+        long id = ids[ThreadLocalRandom.current().nextInt(tableSize)];
+        return tx.execute(status -> repository.findById(id));
+    }
+
+    @Benchmark
+    public Optional<Member> findByName() {
+        String name = "member" + ThreadLocalRandom.current().nextInt(1, tableSize + 1);
+        return tx.execute(status -> repository.findByName(name));
+    }
+
+    @Benchmark
+    public List<Member> findAll() {
+        return tx.execute(status -> repository.findAll());
+    }
+
+    // 임의의 깊이에서 20명짜리 페이지. keyset 이므로 tableSize 와 상관없이 일정해야 한다.
+    @Benchmark
+    public List<Member> findPage() {
+        long afterId = ids[ThreadLocalRandom.current().nextInt(tableSize)];
+        return tx.execute(status -> repository.findPage(afterId, 20));
+    }
+
+    // findAll 과 같은 일을 커서 기반 Stream 으로 (할당률을 findAll 과 비교)
+    @Benchmark
+    public long streamAll() {
+        return tx.execute(status -> {
+            try (Stream<Member> members = repository.streamAll()) {
+                return members.count();
+            }
+        });
+    }
+
+    /*
+        SpringConfig, TimeTraceAop 까지 component scan 하면 AOP 출력이 측정값에 섞이기 때문에,
+        DataSource / JPA / Spring Data JPA 자동 설정만 올리는 최소 설정을 사용한다.
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Member.class)
+    static class BenchmarkConfig {
+    }
+}
@@ -0,0 +1,112 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    회원 1,000,000 명에서 이름 prefix 검색(자동완성, limit 10) 비용을 비교한다.
+    - 이름은 소문자 8글자 무작위 문자열이고, prefix 는 실제 이름의 앞 prefixLength 글자이다.
+    - jdbcNoIndex 는 member_name_idx 가 없는 경우 (like 'abc%' 가 전체 테이블을 읽는다)
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberSearchBenchmark {
+
+    private static final int LIMIT = 10;
+
+    @Param({"memory", "jdbc", "jdbcNoIndex", "springDataJpa"})
+    String backend;
+
+    @Param({"1000000"})
+    int memberCount;
+
+    @Param({"2", "4"})
+    int prefixLength;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate tx;
+    MemberRepository repository;
+    String[] names;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MemberRepositoryBenchmark.BenchmarkConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:search;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=warn");
+        DataSource dataSource = context.getBean(DataSource.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop table if exists member");
+        jdbcTemplate.execute("drop sequence if exists member_seq");
+        jdbcTemplate.execute("create sequence member_seq start with 1 increment by 50");
+        jdbcTemplate.execute("create table member(id bigint default next value for member_seq, name varchar(255), primary key (id))");
+        if (!backend.equals("jdbcNoIndex")) {
+            jdbcTemplate.execute("create index member_name_idx on member(name)");
+        }
+
+        names = new String[memberCount];
+        Random random = new Random(42);
+        List<Member> members = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            char[] name = new char[8];
+            for (int j = 0; j < name.length; j++) {
+                name[j] = (char) ('a' + random.nextInt(26));
+            }
+            names[i] = new String(name);
+            Member member = new Member();
+            member.setName(names[i]);
+            members.add(member);
+        }
+
+        switch (backend) {
+            case "memory":
+                repository = new MemoryMemberRepository();
+                repository.saveAll(members);
+                return;
+            case "jdbc":
+            case "jdbcNoIndex":
+                repository = new JdbcMemberRepository(dataSource);
+                break;
+            case "springDataJpa":
+                repository = context.getBean(SpringDataJpaMemberRepository.class);
+                break;
+            default:
+                throw new IllegalArgumentException("알 수 없는 backend: " + backend);
+        }
+        // 저장은 가장 빠른 JDBC batch 로 한다.
+        JdbcMemberRepository loader = new JdbcMemberRepository(dataSource);
+        tx.executeWithoutResult(status -> loader.saveAll(members));
+        jdbcTemplate.execute("analyze");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> searchByNamePrefix() {
+        String prefix = names[ThreadLocalRandom.current().nextInt(memberCount)].substring(0, prefixLength);
+        return tx.execute(status -> repository.searchByNamePrefix(prefix, LIMIT));
+    }
+}
@@ -0,0 +1,71 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    회원 1,000,000 행을 findAll 처럼 한 번에 읽을 때, 행 -> Member 변환 방식에 따른 초당 처리 행 수.
+    - label  : 이전 JdbcTemplateMemberRepository.memberRowMapper() 처럼 쿼리마다 lambda 를 만들고 행마다 rs.getLong("id") 로 찾는다.
+    - entity : EntityRowMapper (컬럼 번호를 ResultSet 마다 한 번 찾고, 생성자 / setter 는 미리 만든 lambda 로 호출)
+    - jdbc, jdbcTemplate : 실제 리포지토리의 findAll (entity 와 같은 mapper 를 사용)
+    @OperationsPerInvocation 으로 나누므로 결과 단위가 곧 rows/s 이다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowMapperBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    @Param({"label", "entity", "jdbc", "jdbcTemplate"})
+    String mapper;
+
+    JdbcTemplate jdbcTemplate;
+    MemberRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:rowmapper;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop table if exists member");
+        jdbcTemplate.execute("create table member(id bigint primary key, name varchar(255))");
+        jdbcTemplate.execute("insert into member select x, 'member' || x from system_range(1, " + ROWS + ")");
+        if (mapper.equals("jdbc")) {
+            repository = new JdbcMemberRepository(dataSource);
+        } else if (mapper.equals("jdbcTemplate")) {
+            repository = new JdbcTemplateMemberRepository(dataSource);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Member> findAll() {
+        switch (mapper) {
+            case "label":
+                return jdbcTemplate.query("select * from member", labelRowMapper());
+            case "entity":
+                return jdbcTemplate.query("select * from member", EntityRowMapper.forType(Member.class));
+            default:
+                return repository.findAll();
+        }
+    }
+
+    private RowMapper<Member> labelRowMapper() {
+        return (rs, rowNum) -> {
+            Member member = new Member();
+            member.setId(rs.getLong("id"));
+            member.setName(rs.getString("name"));
+            return member;
+        };
+    }
+}
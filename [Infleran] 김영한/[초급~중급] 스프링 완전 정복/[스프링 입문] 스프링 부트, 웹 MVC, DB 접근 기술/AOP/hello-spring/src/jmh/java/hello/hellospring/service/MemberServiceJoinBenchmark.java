@@ -0,0 +1,92 @@
+package hello.hellospring.service;
+
+import hello.hellospring.app.BloomFilter;
+import hello.hellospring.domain.Member;
+import hello.hellospring.repository.MemberRepository;
+import hello.hellospring.repository.SpringDataJpaMemberRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    이름 Bloom filter 를 쓸 때와 안 쓸 때의 join 처리량 비교.
+    - 가입하는 이름은 모두 새 이름이므로, filter 가 있으면 거의 모든 findByName 조회가 생략된다.
+    - 저장소는 내장 메모리 H2 + Spring Data JPA 이고, join 한 번을 MemberService 처럼 트랜잭션 하나로 실행한다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberServiceJoinBenchmark {
+
+    @Param({"off", "on"})
+    String filter;
+
+    @Param({"10000", "100000"})
+    int tableSize;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate tx;
+    MemberService memberService;
+    final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:join-bench;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=warn");
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        MemberRepository repository = context.getBean(SpringDataJpaMemberRepository.class);
+
+        List<Member> members = new ArrayList<>(tableSize);
+        for (int i = 1; i <= tableSize; i++) {
+            Member member = new Member();
+            member.setName("member" + i);
+            members.add(member);
+        }
+        tx.executeWithoutResult(status -> repository.saveAll(members));
+
+        if ("on".equals(filter)) {
+            memberService = new MemberService(repository, new BloomFilter(tableSize * 10L, 0.01));
+            tx.executeWithoutResult(status -> memberService.warmUpNameFilter());
+        } else {
+            memberService = new MemberService(repository);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long join() {
+        Member member = new Member();
+        member.setName("new-member" + sequence.incrementAndGet());
+        return tx.execute(status -> memberService.join(member));
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Member.class)
+    @EnableJpaRepositories(basePackageClasses = MemberRepository.class)
+    static class BenchmarkConfig {
+    }
+}
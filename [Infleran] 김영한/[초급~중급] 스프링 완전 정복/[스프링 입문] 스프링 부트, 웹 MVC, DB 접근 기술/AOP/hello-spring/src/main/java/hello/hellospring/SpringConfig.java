@@ -1,38 +1,122 @@
 package hello.hellospring;
 
+import hello.hellospring.app.BloomFilter;
+import hello.hellospring.app.CallTreeProfiler;
+import hello.hellospring.app.DataVersion;
+import hello.hellospring.app.LatencyRegistry;
+import hello.hellospring.app.RenderedViewCache;
+import hello.hellospring.app.ServiceExecutors;
 import hello.hellospring.app.TimeTraceAop;
 import hello.hellospring.repository.*;
+import hello.hellospring.service.AsyncMemberService;
 import hello.hellospring.service.MemberService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 
 import javax.persistence.EntityManager;
 import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executor;
 
 @Configuration
 public class SpringConfig {
 
     private final MemberRepository memberRepository;
 
+    // MemberRepository 타입 빈이 캐시까지 두 개이므로, 캐시가 감쌀 원본(Spring Data JPA)을 이름으로 지정한다.
     @Autowired
-    public SpringConfig(MemberRepository memberRepository) {
+    public SpringConfig(@Qualifier("springDataJpaMemberRepository") MemberRepository memberRepository) {
         this.memberRepository = memberRepository;
     }
 
     @Bean
-    public MemberService memberService(){
-        return new MemberService(memberRepository);
+    public MemberService memberService(CachingMemberRepository cachingMemberRepository, BloomFilter memberNameFilter,
+                                       DataVersion memberVersion){
+        return new MemberService(cachingMemberRepository, memberNameFilter, memberVersion);
     }
 
+    // 가입할 때마다 올라가는 회원 목록 번호
     @Bean
-    public TimeTraceAop timeTraceAop(){
-        return new TimeTraceAop();
+    public DataVersion memberVersion(){
+        return new DataVersion();
+    }
+
+    // 렌더링한 /members 페이지. 페이지(after, before, size) 조합마다 한 항목
+    @Bean
+    public RenderedViewCache memberListViewCache(DataVersion memberVersion,
+                                                 @Value("${member.view-cache.maximum-size:1000}") long maximumSize){
+        return new RenderedViewCache(memberVersion, maximumSize);
+    }
+
+    /*
+        member.executor.type=direct | bounded | virtual (JDK 21+)
+        executor 를 빈으로 등록하면 Spring Boot 의 applicationTaskExecutor(MVC async 가 사용)가 만들어지지 않으므로, AsyncMemberService 안에 둔다.
+     */
+    @Bean
+    public AsyncMemberService asyncMemberService(MemberService memberService,
+                                                 @Value("${member.executor.type:bounded}") String type,
+                                                 @Value("${member.executor.threads:32}") int threads,
+                                                 @Value("${member.executor.queue-capacity:1000}") int queueCapacity){
+        Executor executor = ServiceExecutors.create(type, "member-async-", threads, queueCapacity);
+        return new AsyncMemberService(memberService, executor);
+    }
+
+    // 중복 이름 검사 전에 보는 Bloom filter. 1,000,000 명 / 1% 기준 약 1.2MB
+    @Bean
+    public BloomFilter memberNameFilter(@Value("${member.name-filter.expected-insertions:1000000}") long expectedInsertions,
+                                        @Value("${member.name-filter.fpp:0.01}") double fpp){
+        return new BloomFilter(expectedInsertions, fpp);
+    }
+
+    /*
+        시작할 때 기존 회원 이름으로 filter 를 채운다. 끝나기 전까지 join 은 항상 DB 를 조회한다.
+        회원 수만큼 걸리는 작업이라 준비(ready)를 늦추지 않도록 별도 스레드에서 실행한다.
+        MemberService 도 그 스레드에서 꺼내므로, lazy 프로필에서는 JPA 초기화가 시작을 막지 않는다.
+     */
+    @Bean
+    public ApplicationRunner memberNameFilterWarmUp(ObjectProvider<MemberService> memberService){
+        return args -> {
+            Thread warmUp = new Thread(() -> memberService.getObject().warmUpNameFilter(), "member-name-filter-warm-up");
+            warmUp.setDaemon(true);
+            warmUp.start();
+        };
+    }
+
+    @Bean
+    @Primary
+    public CachingMemberRepository cachingMemberRepository(@Value("${member.cache.maximum-size:10000}") long maximumSize,
+                                                           @Value("${member.cache.ttl:10m}") Duration ttl){
+        return new CachingMemberRepository(memberRepository, maximumSize, ttl);
+    }
+
+    @Bean
+    public LatencyRegistry latencyRegistry(){
+        return new LatencyRegistry();
+    }
+
+    @Bean
+    public CallTreeProfiler callTreeProfiler(@Value("${trace.sampling-rate:0.01}") double samplingRate){
+        return new CallTreeProfiler(samplingRate);
+    }
+
+    // 위빙 모드(woven 프로필)에서는 WovenAopConfig 가 AspectJ 의 aspect 인스턴스를 등록한다.
+    @Bean
+    @Profile("!woven")
+    public TimeTraceAop timeTraceAop(CallTreeProfiler callTreeProfiler){
+        return new TimeTraceAop(latencyRegistry(), callTreeProfiler);
     }
 
     /*@Bean
     public MemberRepository memberRepository(){
         // return new MemoryMemberRepository();
+        // return new DurableMemberRepository(Paths.get("data/members")); // 종료할 때 close() 가 호출된다.
         // return new JdbcMemberRepository(dataSource);
         // return new JdbcTemplateMemberRepository(dataSource);
         // return new JpaMemberRepository(em);
@@ -0,0 +1,149 @@
+package hello.hellospring.app;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    문자열 집합에 대한 lock-free Bloom filter.
+    - mightContain 이 false 이면 한 번도 put 되지 않은 값이다. (false negative 없음)
+    - true 이면 있을 수도 있는 값이므로, 실제 저장소에서 다시 확인해야 한다. (false positive 확률 약 fpp)
+    - 삭제는 지원하지 않는다.
+    - 처음 채우는 중(warm-up)에는 ready 가 false 이고, 그동안의 "없음" 답은 믿으면 안 된다.
+ */
+public class BloomFilter {
+
+    private static final int MAX_WORDS = 1 << 25;
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+    private volatile boolean ready;
+
+    private final LongAdder insertions = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public BloomFilter(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions 는 0보다 커야 합니다: " + expectedInsertions);
+        }
+        if (fpp <= 0.0 || fpp >= 1.0) {
+            throw new IllegalArgumentException("fpp 는 0 과 1 사이여야 합니다: " + fpp);
+        }
+        // m = -n ln(p) / (ln 2)^2, k = (m / n) ln 2
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        // 인덱스를 int 로 계산하므로 2^31 비트(256MB)까지만 사용한다.
+        int words = (int) Math.min(MAX_WORDS, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String value) {
+        set(value);
+        insertions.increment();
+    }
+
+    /*
+        put 하면서, put 하기 전에 mightContain 이 무엇이라고 답했을지를 돌려준다. (비트를 하나라도 새로 켰다면 false)
+        확인과 넣기 사이에 틈이 없으므로, 이 값에 대한 다음 호출은 반드시 true 를 본다.
+        단, 같은 값을 동시에 넣는 호출끼리는 둘 다 false 를 볼 수 있으므로 호출한 쪽에서 값별로 순서를 정해야 한다.
+     */
+    public boolean mightContainAndPut(String value) {
+        queries.increment();
+        boolean present = set(value);
+        insertions.increment();
+        if (!present) {
+            negatives.increment();
+        }
+        return present;
+    }
+
+    // value 의 비트를 모두 켜고, 처음부터 모두 켜져 있었는지를 돌려준다.
+    private boolean set(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean present = true;
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = index(h1, h2, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            // 이미 켜져 있으면 쓰지 않는다. (대부분의 put 이 읽기만 하고 끝나도록)
+            if ((bits.get(word) & mask) == 0
+                    && (bits.getAndAccumulate(word, mask, (current, m) -> current | m) & mask) == 0) {
+                present = false;
+            }
+        }
+        return present;
+    }
+
+    public boolean mightContain(String value) {
+        queries.increment();
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = index(h1, h2, i);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                negatives.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // mightContain 이 true 였지만 실제 저장소에는 없었을 때 호출한다.
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public BloomFilterStats stats() {
+        long setBits = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            setBits += Long.bitCount(bits.get(i));
+        }
+        long negativeCount = negatives.sum();
+        long falsePositiveCount = falsePositives.sum();
+        // 켜진 비트 비율^k : 지금 상태에서 없는 값을 물었을 때 true 가 나올 확률
+        double expectedFpp = Math.pow((double) setBits / bitSize, hashFunctions);
+        // 실제로 없던 값들(negative + false positive) 중 false positive 의 비율
+        long absent = negativeCount + falsePositiveCount;
+        double observedFpp = absent == 0 ? 0.0 : (double) falsePositiveCount / absent;
+        return new BloomFilterStats(ready, bitSize, hashFunctions, insertions.sum(), queries.sum(),
+                negativeCount, falsePositiveCount, expectedFpp, observedFpp);
+    }
+
+    // Kirsch-Mitzenmacher: 64bit 해시 하나로 k 개의 인덱스를 만든다.
+    private long index(int h1, int h2, int i) {
+        int combined = h1 + i * h2;
+        if (combined < 0) {
+            combined = ~combined;
+        }
+        return combined % bitSize;
+    }
+
+    // FNV-1a 64bit 후 murmur3 의 fmix64 로 비트를 고르게 섞는다. (String.hashCode 는 32bit 라 부족하다)
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
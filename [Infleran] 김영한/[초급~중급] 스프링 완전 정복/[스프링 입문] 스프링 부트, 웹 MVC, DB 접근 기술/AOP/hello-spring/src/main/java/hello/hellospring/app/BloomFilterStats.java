@@ -0,0 +1,68 @@
+package hello.hellospring.app;
+
+/*
+    BloomFilter 의 특정 시점 통계.
+    - expectedFpp : 지금 켜진 비트 수로 계산한 false positive 확률
+    - observedFpp : 실제로 없던 이름을 물었을 때 "있을 수도 있음" 이 나온 비율 (falsePositives / (negatives + falsePositives))
+ */
+public class BloomFilterStats {
+
+    private final boolean ready;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final long insertions;
+    private final long queries;
+    private final long negatives;
+    private final long falsePositives;
+    private final double expectedFpp;
+    private final double observedFpp;
+
+    public BloomFilterStats(boolean ready, long bitSize, int hashFunctions, long insertions, long queries,
+                            long negatives, long falsePositives, double expectedFpp, double observedFpp) {
+        this.ready = ready;
+        this.bitSize = bitSize;
+        this.hashFunctions = hashFunctions;
+        this.insertions = insertions;
+        this.queries = queries;
+        this.negatives = negatives;
+        this.falsePositives = falsePositives;
+        this.expectedFpp = expectedFpp;
+        this.observedFpp = observedFpp;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    public long getInsertions() {
+        return insertions;
+    }
+
+    public long getQueries() {
+        return queries;
+    }
+
+    public long getNegatives() {
+        return negatives;
+    }
+
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+
+    public double getExpectedFpp() {
+        return expectedFpp;
+    }
+
+    public double getObservedFpp() {
+        return observedFpp;
+    }
+}
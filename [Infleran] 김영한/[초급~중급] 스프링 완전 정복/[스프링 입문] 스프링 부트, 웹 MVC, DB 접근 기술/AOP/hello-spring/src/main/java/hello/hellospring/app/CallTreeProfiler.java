@@ -0,0 +1,172 @@
+package hello.hellospring.app;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+    요청(가장 바깥쪽 join point) 단위로 샘플링해서 호출 트리를 만들고, 하나의 트리로 합쳐서 보관한다.
+    - 샘플링되지 않은 요청은 스레드별 깊이 값만 증가/감소하므로 객체를 생성하지 않는다.
+    - 샘플링된 요청만 Frame 을 만들어 caller -> callee 관계와 self / total 시간을 기록한다.
+    - dumpCollapsed() 는 flame graph 도구(flamegraph.pl, speedscope 등)가 읽는 collapsed-stack 형식으로 출력한다.
+ */
+public class CallTreeProfiler {
+
+    private volatile double samplingRate;
+    private final ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(ThreadState::new);
+    private final Node mergedRoot = new Node("root");
+
+    public CallTreeProfiler(double samplingRate) {
+        setSamplingRate(samplingRate);
+    }
+
+    public double getSamplingRate() {
+        return samplingRate;
+    }
+
+    public void setSamplingRate(double samplingRate) {
+        // NaN 도 걸러지도록 범위 안에 있는지를 확인한다.
+        if (!(samplingRate >= 0 && samplingRate <= 1)) {
+            throw new IllegalArgumentException("samplingRate 는 0 ~ 1 사이여야 합니다: " + samplingRate);
+        }
+        this.samplingRate = samplingRate;
+    }
+
+    /*
+        join point 시작 시 호출한다. 샘플링 중이 아니면 null 을 반환한다.
+     */
+    public Frame enter(String name) {
+        ThreadState state = threadState.get();
+        if (state.current != null) {
+            state.current = new Frame(name, state.current);
+            return state.current;
+        }
+        if (state.unsampledDepth > 0) {
+            state.unsampledDepth++;
+            return null;
+        }
+        double rate = samplingRate;
+        if (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate) {
+            state.current = new Frame(name, null);
+            return state.current;
+        }
+        state.unsampledDepth = 1;
+        return null;
+    }
+
+    /*
+        join point 종료 시 enter 가 반환한 값과 걸린 시간을 넘긴다.
+     */
+    public void exit(Frame frame, long elapsedNanos) {
+        ThreadState state = threadState.get();
+        if (frame == null) {
+            if (state.unsampledDepth > 0) {
+                state.unsampledDepth--;
+            }
+            return;
+        }
+        frame.totalNanos = elapsedNanos;
+        state.current = frame.parent;
+        if (frame.parent != null) {
+            frame.parent.childNanos += elapsedNanos;
+            frame.parent.children.add(frame);
+        } else {
+            merge(frame);
+        }
+    }
+
+    private synchronized void merge(Frame root) {
+        mergeInto(mergedRoot, root);
+    }
+
+    private void mergeInto(Node parent, Frame frame) {
+        Node node = parent.children.computeIfAbsent(frame.name, Node::new);
+        node.count++;
+        node.totalNanos += frame.totalNanos;
+        node.selfNanos += Math.max(frame.totalNanos - frame.childNanos, 0);
+        for (Frame child : frame.children) {
+            mergeInto(node, child);
+        }
+    }
+
+    /*
+        "MemberController.list;MemberService.findMembers;... selfMicros" 형식으로 한 줄에 하나의 경로를 출력한다.
+     */
+    public synchronized String dumpCollapsed() {
+        StringBuilder sb = new StringBuilder();
+        for (Node child : mergedRoot.children.values()) {
+            appendCollapsed(sb, child, child.name);
+        }
+        return sb.toString();
+    }
+
+    private void appendCollapsed(StringBuilder sb, Node node, String path) {
+        long selfMicros = node.selfNanos / 1_000;
+        if (selfMicros > 0) {
+            sb.append(path).append(' ').append(selfMicros).append('\n');
+        }
+        for (Node child : node.children.values()) {
+            appendCollapsed(sb, child, path + ";" + child.name);
+        }
+    }
+
+    /*
+        들여쓰기로 caller -> callee 관계를 표시하고, 호출 수와 total / self 시간(us)을 함께 출력한다.
+     */
+    public synchronized String dumpTree() {
+        StringBuilder sb = new StringBuilder();
+        for (Node child : mergedRoot.children.values()) {
+            appendTree(sb, child, 0);
+        }
+        return sb.toString();
+    }
+
+    private void appendTree(StringBuilder sb, Node node, int depth) {
+        for (int i = 0; i < depth; i++) {
+            sb.append("  ");
+        }
+        sb.append(node.name)
+                .append(" count=").append(node.count)
+                .append(" total=").append(node.totalNanos / 1_000).append("us")
+                .append(" self=").append(node.selfNanos / 1_000).append("us\n");
+        for (Node child : node.children.values()) {
+            appendTree(sb, child, depth + 1);
+        }
+    }
+
+    public synchronized void reset() {
+        mergedRoot.children.clear();
+    }
+
+    private static class ThreadState {
+        Frame current;
+        int unsampledDepth;
+    }
+
+    public static class Frame {
+        private final String name;
+        private final Frame parent;
+        private final List<Frame> children = new ArrayList<>();
+        private long totalNanos;
+        private long childNanos;
+
+        private Frame(String name, Frame parent) {
+            this.name = name;
+            this.parent = parent;
+        }
+    }
+
+    private static class Node {
+        private final String name;
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private long count;
+        private long totalNanos;
+        private long selfNanos;
+
+        private Node(String name) {
+            this.name = name;
+        }
+    }
+}
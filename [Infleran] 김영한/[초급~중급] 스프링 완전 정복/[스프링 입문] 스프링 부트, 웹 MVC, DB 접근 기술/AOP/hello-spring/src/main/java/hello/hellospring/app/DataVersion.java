@@ -0,0 +1,32 @@
+package hello.hellospring.app;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    데이터가 바뀔 때마다 1씩 올라가는 번호. RenderedViewCache 가 이 번호를 키에 넣어서, 번호가 바뀌면 다시 렌더링한다.
+    트랜잭션 안에서 올리면 commit 된 뒤에 올린다. 그 전에 올리면 다른 요청이 commit 전 데이터를 새 번호로 캐시할 수 있다.
+ */
+public class DataVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public void increment() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            version.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                version.incrementAndGet();
+            }
+        });
+    }
+}
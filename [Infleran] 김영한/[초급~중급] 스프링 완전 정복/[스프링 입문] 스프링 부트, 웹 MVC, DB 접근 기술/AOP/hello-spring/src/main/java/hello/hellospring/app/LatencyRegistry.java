@@ -0,0 +1,37 @@
+package hello.hellospring.app;
+
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/*
+    join point(메소드) 별 LatencyHistogram 을 보관한다.
+    처음 호출될 때 한 번만 히스토그램을 만들고, 이후에는 조회만 하므로 객체를 생성하지 않는다.
+ */
+public class LatencyRegistry {
+
+    private final ConcurrentMap<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public LatencyHistogram histogram(Method method) {
+        LatencyHistogram histogram = histograms.get(method);
+        if (histogram != null) {
+            return histogram;
+        }
+        return histograms.computeIfAbsent(method,
+                m -> new LatencyHistogram(m.getDeclaringClass().getSimpleName() + "." + m.getName()));
+    }
+
+    public List<LatencySnapshot> snapshots() {
+        return histograms.values().stream()
+                .map(LatencyHistogram::snapshot)
+                .sorted(Comparator.comparing(LatencySnapshot::getName))
+                .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        histograms.clear();
+    }
+}
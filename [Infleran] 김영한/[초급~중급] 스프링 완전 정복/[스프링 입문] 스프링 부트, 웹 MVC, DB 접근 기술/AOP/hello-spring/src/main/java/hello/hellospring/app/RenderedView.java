@@ -0,0 +1,24 @@
+package hello.hellospring.app;
+
+/*
+    렌더링이 끝난 HTML. UTF-8 로 미리 인코딩해 두어 응답할 때마다 문자열을 인코딩하지 않는다.
+ */
+public class RenderedView {
+
+    private final byte[] body;
+    private final String etag;
+
+    public RenderedView(byte[] body, String etag) {
+        this.body = body;
+        this.etag = etag;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    // 따옴표를 포함한 strong ETag. ex) "3-1a2b3c4d"
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -0,0 +1,40 @@
+package hello.hellospring.app;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/*
+    렌더링한 뷰를 (뷰 이름, 요청 파라미터, DataVersion) 키로 캐시한다.
+    - 데이터가 바뀌어 version 이 올라가면 새 키로 다시 렌더링하고, 이전 version 의 항목은 더 이상 쓰이지 않다가 크기 제한으로 밀려난다.
+    - 같은 키를 동시에 요청하면 한 스레드만 렌더링한다.
+    - ETag 는 version 과 본문의 CRC32 로 만든다. 브라우저가 If-None-Match 로 보내면 본문 없이 304 로 응답할 수 있다.
+ */
+public class RenderedViewCache {
+
+    private final DataVersion version;
+    private final Cache<String, RenderedView> cache;
+
+    public RenderedViewCache(DataVersion version, long maximumSize) {
+        this.version = version;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    // variant 는 같은 뷰 안에서 결과를 구분하는 값 (페이지 파라미터 등)
+    public RenderedView get(String viewName, String variant, Supplier<String> renderer) {
+        long current = version.current();
+        return cache.get(viewName + '|' + variant + '|' + current, key -> render(current, renderer.get()));
+    }
+
+    private static RenderedView render(long version, String html) {
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return new RenderedView(body, "\"" + version + "-" + Long.toHexString(crc.getValue()) + "\"");
+    }
+}
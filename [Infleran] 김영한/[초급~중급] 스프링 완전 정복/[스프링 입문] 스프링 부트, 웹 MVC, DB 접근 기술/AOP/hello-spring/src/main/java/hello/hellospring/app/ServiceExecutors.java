@@ -0,0 +1,60 @@
+package hello.hellospring.app;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    서비스 호출을 요청 스레드(Tomcat) 밖에서 실행하기 위한 Executor 를 만든다.
+    - direct  : 호출한 스레드에서 바로 실행 (동기 방식과 같다. 비교용)
+    - bounded : threads 개의 고정 스레드 + queueCapacity 크기의 대기열. 가득 차면 RejectedExecutionException
+    - virtual : 작업마다 virtual thread 하나. JDK 21 이상에서만 사용할 수 있다.
+ */
+public final class ServiceExecutors {
+
+    private ServiceExecutors() {
+    }
+
+    public static Executor create(String type, String namePrefix, int threads, int queueCapacity) {
+        switch (type) {
+            case "direct":
+                return Runnable::run;
+            case "bounded":
+                return bounded(namePrefix, threads, queueCapacity);
+            case "virtual":
+                return virtual();
+            default:
+                throw new IllegalArgumentException("알 수 없는 executor type: " + type);
+        }
+    }
+
+    private static ThreadPoolExecutor bounded(String namePrefix, int threads, int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // 대기열이 가득 차면 호출한 요청 스레드에서 실행하지 않고 바로 거절한다. (요청 스레드를 묶지 않기 위해)
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Java 11 로 컴파일하므로 Executors.newVirtualThreadPerTaskExecutor 는 reflection 으로 호출한다.
+    private static Executor virtual() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("virtual thread 는 JDK 21 이상에서 사용할 수 있습니다. 현재: "
+                    + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("virtual thread executor 를 만들 수 없습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package hello.hellospring.app;
+
+/*
+    시작 과정의 한 단계. (json 으로 보여주기 위해 getter 로 감싼다)
+    - 단계(phase) : atMillis 는 JVM 이 시작된 뒤 그 단계에 도달한 시각
+    - 빈(bean)   : millis 는 생성부터 초기화까지 걸린 시간 (그 사이에 만들어진 의존 빈의 시간을 포함)
+ */
+public class StartupStep {
+
+    private final String name;
+    private final long atMillis;
+    private final double millis;
+
+    public StartupStep(String name, long atMillis, double millis) {
+        this.name = name;
+        this.atMillis = atMillis;
+        this.millis = millis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getAtMillis() {
+        return atMillis;
+    }
+
+    public double getMillis() {
+        return millis;
+    }
+}
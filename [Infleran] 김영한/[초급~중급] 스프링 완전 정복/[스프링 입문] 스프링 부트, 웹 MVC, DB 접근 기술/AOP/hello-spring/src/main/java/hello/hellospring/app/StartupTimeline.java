@@ -0,0 +1,76 @@
+package hello.hellospring.app;
+
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/*
+    애플리케이션 시작 과정의 타임라인.
+    Spring 5.3 의 ApplicationStartup 이 없으므로(Spring Boot 2.3 = Spring 5.2),
+    StartupTimelineListener 가 SpringApplication 단계를 기록하고, 이 클래스가 빈마다 생성 ~ 초기화 시간을 잰다.
+    - 빈 시간은 생성 직전(postProcessBeforeInstantiation)부터 초기화 끝(postProcessAfterInitialization)까지이다.
+    - lazy 초기화된 빈은 처음 사용될 때 기록된다.
+ */
+public class StartupTimeline implements InstantiationAwareBeanPostProcessor {
+
+    private final List<StartupStep> phases = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<String, Long> beanStarts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, StartupStep> beans = new ConcurrentHashMap<>();
+    private volatile long lastPhaseMillis;
+
+    public void phase(String name) {
+        long now = uptimeMillis();
+        phases.add(new StartupStep(name, now, now - lastPhaseMillis));
+        lastPhaseMillis = now;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+        beanStarts.putIfAbsent(beanName, System.nanoTime());
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Long start = beanStarts.remove(beanName);
+        if (start != null) {
+            beans.putIfAbsent(beanName, new StartupStep(beanName, uptimeMillis(), (System.nanoTime() - start) / 1e6));
+        }
+        return bean;
+    }
+
+    public List<StartupStep> getPhases() {
+        return new ArrayList<>(phases);
+    }
+
+    // 오래 걸린 빈 순서로 limit 개
+    public List<StartupStep> slowestBeans(int limit) {
+        return beans.values().stream()
+                .sorted(Comparator.comparingDouble(StartupStep::getMillis).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public String report(int limit) {
+        StringBuilder report = new StringBuilder("startup timeline (JVM 시작 후 ms)\n");
+        for (StartupStep phase : phases) {
+            report.append(String.format("  %6d  +%5.0f  %s%n", phase.getAtMillis(), phase.getMillis(), phase.getName()));
+        }
+        report.append(String.format("slowest beans (%d 개 중)%n", beans.size()));
+        for (StartupStep bean : slowestBeans(limit)) {
+            report.append(String.format("  %8.1f  %s%n", bean.getMillis(), bean.getName()));
+        }
+        return report.toString();
+    }
+
+    private static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
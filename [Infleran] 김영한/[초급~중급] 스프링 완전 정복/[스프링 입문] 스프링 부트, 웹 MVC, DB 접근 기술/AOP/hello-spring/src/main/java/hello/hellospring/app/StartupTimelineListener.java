@@ -0,0 +1,66 @@
+package hello.hellospring.app;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringApplicationRunListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/*
+    SpringApplication 의 시작 단계를 StartupTimeline 에 기록한다. (META-INF/spring.factories 로 등록)
+    - context 가 만들어지면 StartupTimeline 을 BeanPostProcessor 와 startupTimeline 빈으로 등록한다. (/trace/startup)
+    - startup.report=true 이면 준비가 끝났을 때 타임라인을 로그로 남긴다. (기본값 false)
+    - startup.exit-after-ready=true 이면 준비가 끝나자마자 종료한다. (AppCDS 클래스 목록 학습용, build.gradle 의 cdsClassList)
+ */
+public class StartupTimelineListener implements SpringApplicationRunListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimelineListener.class);
+    private static final int REPORT_BEANS = 10;
+
+    private final StartupTimeline timeline = new StartupTimeline();
+
+    public StartupTimelineListener(SpringApplication application, String[] args) {
+    }
+
+    @Override
+    public void starting() {
+        timeline.phase("starting");
+    }
+
+    @Override
+    public void environmentPrepared(ConfigurableEnvironment environment) {
+        timeline.phase("environmentPrepared");
+    }
+
+    @Override
+    public void contextPrepared(ConfigurableApplicationContext context) {
+        timeline.phase("contextPrepared");
+        context.getBeanFactory().addBeanPostProcessor(timeline);
+        context.getBeanFactory().registerSingleton("startupTimeline", timeline);
+    }
+
+    @Override
+    public void contextLoaded(ConfigurableApplicationContext context) {
+        timeline.phase("contextLoaded");
+    }
+
+    // context refresh 가 끝남 (웹 서버 시작, 빈 생성 완료)
+    @Override
+    public void started(ConfigurableApplicationContext context) {
+        timeline.phase("started");
+    }
+
+    // ApplicationRunner 까지 끝남
+    @Override
+    public void running(ConfigurableApplicationContext context) {
+        timeline.phase("running");
+        ConfigurableEnvironment environment = context.getEnvironment();
+        if (environment.getProperty("startup.report", Boolean.class, false)) {
+            log.info("{}", timeline.report(REPORT_BEANS));
+        }
+        if (environment.getProperty("startup.exit-after-ready", Boolean.class, false)) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
@@ -3,22 +3,53 @@ package hello.hellospring.app;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 
 //@Component
 @Aspect
 public class TimeTraceAop {
 
+    private LatencyRegistry latencyRegistry;
+    private CallTreeProfiler callTreeProfiler;
+
+    /*
+        ajc(컴파일 시점) / aspectjweaver(로드 시점) 위빙에서는 AspectJ 가 기본 생성자로 직접 aspect 를 만든다.
+        이 경우 WovenAopConfig 가 configure 를 호출하기 전까지는 기록하지 않고 그대로 실행만 한다.
+     */
+    public TimeTraceAop() {
+    }
+
+    public TimeTraceAop(LatencyRegistry latencyRegistry, CallTreeProfiler callTreeProfiler) {
+        configure(latencyRegistry, callTreeProfiler);
+    }
+
+    public void configure(LatencyRegistry latencyRegistry, CallTreeProfiler callTreeProfiler) {
+        this.latencyRegistry = latencyRegistry;
+        this.callTreeProfiler = callTreeProfiler;
+    }
+
     // @Around("execution(* hello.hellospring..*(..))")
-    @Around("execution(* hello.hellospring..*(..)) && !target(hello.hellospring.SpringConfig)")
+    // app 패키지(LatencyRegistry 등)까지 감싸면 기록하는 코드가 다시 기록되므로 제외한다.
+    // 위빙 모드에서는 빈이 아닌 Member, MemberForm 의 getter/setter 까지 감싸게 되므로 함께 제외한다.
+    @Around("execution(* hello.hellospring..*(..)) && !target(hello.hellospring.SpringConfig) && !within(hello.hellospring.app..*)" +
+            " && !within(hello.hellospring.domain..*) && !within(hello.hellospring.controller.MemberForm)")
     public Object execute(ProceedingJoinPoint joinPoint) throws Throwable{
-        long start = System.currentTimeMillis();
-        System.out.println("START: " + joinPoint.toString());
+        LatencyRegistry latencyRegistry = this.latencyRegistry;
+        CallTreeProfiler callTreeProfiler = this.callTreeProfiler;
+        if (latencyRegistry == null || callTreeProfiler == null) {
+            return joinPoint.proceed();
+        }
+        LatencyHistogram histogram = latencyRegistry.histogram(((MethodSignature) joinPoint.getSignature()).getMethod());
+        // 샘플링된 요청일 때만 호출 트리 frame 이 만들어진다.
+        CallTreeProfiler.Frame frame = callTreeProfiler.enter(histogram.getName());
+        // System.out.println 은 측정 대상 메소드보다 느리므로, nanoTime 으로 잰 값을 히스토그램에만 기록한다.
+        long start = System.nanoTime();
         try{
             return joinPoint.proceed();
         }finally {
-            long finish = System.currentTimeMillis();
-            long timeMs = finish - start;
-            System.out.println("END: " + joinPoint.toString() + " " + timeMs + "ms");
+            long timeNs = System.nanoTime() - start;
+            histogram.record(timeNs);
+            callTreeProfiler.exit(frame, timeNs);
         }
     }
 }
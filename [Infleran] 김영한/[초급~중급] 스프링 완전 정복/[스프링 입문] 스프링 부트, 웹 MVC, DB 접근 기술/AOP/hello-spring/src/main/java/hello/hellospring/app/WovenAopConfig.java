@@ -0,0 +1,25 @@
+package hello.hellospring.app;
+
+import org.aspectj.lang.Aspects;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/*
+    ./gradlew bootRun -Paop=ctw (ajc 컴파일 시점 위빙) 또는 -Paop=ltw (aspectjweaver agent 로드 시점 위빙) 으로 실행하면
+    woven 프로필이 켜진다.
+    - 이미 바이트코드에 advice 가 들어가 있으므로 application-woven.properties 에서 Spring 의 @Aspect 프록시 생성을 끈다.
+    - AspectJ 가 만든 singleton aspect 를 빈으로 등록하고, 기록에 필요한 객체를 넣어준다.
+    프록시를 거치지 않으므로 MemberService 안에서의 자기 호출(self-invocation)도 기록된다.
+ */
+@Configuration
+@Profile("woven")
+public class WovenAopConfig {
+
+    @Bean
+    public TimeTraceAop timeTraceAop(LatencyRegistry latencyRegistry, CallTreeProfiler callTreeProfiler) {
+        TimeTraceAop aspect = Aspects.aspectOf(TimeTraceAop.class);
+        aspect.configure(latencyRegistry, callTreeProfiler);
+        return aspect;
+    }
+}
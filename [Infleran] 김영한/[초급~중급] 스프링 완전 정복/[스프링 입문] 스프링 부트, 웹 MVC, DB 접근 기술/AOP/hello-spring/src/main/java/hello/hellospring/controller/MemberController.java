@@ -1,22 +1,56 @@
 package hello.hellospring.controller;
 
+import hello.hellospring.app.RenderedView;
+import hello.hellospring.app.RenderedViewCache;
 import hello.hellospring.domain.Member;
+import hello.hellospring.service.AsyncMemberService;
+import hello.hellospring.service.MemberPage;
 import hello.hellospring.service.MemberService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
-import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring5.SpringTemplateEngine;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller
 public class MemberController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_LIMIT = 20;
+    private static final int MAX_PREFIX_LENGTH = 50;
+
     private final MemberService memberService;
+    private final AsyncMemberService asyncMemberService;
+    private final SpringTemplateEngine templateEngine;
+    private final RenderedViewCache memberListViewCache;
 
     @Autowired
-    public MemberController(MemberService memberService) {
+    public MemberController(MemberService memberService, AsyncMemberService asyncMemberService,
+                            SpringTemplateEngine templateEngine, RenderedViewCache memberListViewCache) {
         this.memberService = memberService;
+        this.asyncMemberService = asyncMemberService;
+        this.templateEngine = templateEngine;
+        this.memberListViewCache = memberListViewCache;
     }
 
     @GetMapping("/members/new")
@@ -24,21 +58,86 @@ public class MemberController {
         return "members/createMemberform";
     }
 
+    // 가입은 memberExecutor 에서 실행하고, 요청 스레드는 future 가 끝날 때까지 반환해 둔다. (Servlet async)
     @PostMapping("/members/new")
-    public String create(MemberForm form) {
+    public CompletableFuture<String> create(MemberForm form) {
         Member member = new Member();
         member.setName(form.getName());
 
-        memberService.join(member);
+        return asyncMemberService.join(member)
+                .thenApply(id -> "redirect:/");
+    }
 
-        return "redirect:/";
+    // memberExecutor 대기열이 가득 차면 기다리게 하지 않고 바로 503 으로 응답한다.
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("잠시 후 다시 시도해 주세요.");
     }
 
+    /*
+        회원 목록을 size 명씩 나누어 보여준다. 이전 / 다음 링크는 offset 대신 id cursor 를 넘긴다.
+        ex) /members, /members?after=20, /members?before=21
+        목록은 가입할 때만 바뀌므로, 렌더링한 HTML 을 memberListViewCache 에 두고 가입 전까지 그대로 보낸다.
+        ETag 가 같으면(If-None-Match) 본문 없이 304 로 응답한다. (ResponseEntity 의 ETag 를 Spring MVC 가 비교)
+     */
     @GetMapping("/members")
-    public String list(Model model) {
-        List<Member> members = memberService.findMembers();
-        model.addAttribute("members", members);
-        return "members/memberList";
+    public ResponseEntity<byte[]> list(@RequestParam(name = "after", required = false) Long after,
+                                       @RequestParam(name = "before", required = false) Long before,
+                                       @RequestParam(name = "size", defaultValue = "20") int size,
+                                       HttpServletRequest request, HttpServletResponse response) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String variant = "after=" + after + "&before=" + before + "&size=" + pageSize;
+        RenderedView view = memberListViewCache.get("members/memberList", variant, () -> {
+            MemberPage page = memberService.findMemberPage(after, before, pageSize);
+            // @{/members(...)} 링크를 만들려면 WebContext 가 필요하다.
+            WebContext context = new WebContext(request, response, request.getServletContext(), request.getLocale());
+            context.setVariable("members", page.getMembers());
+            context.setVariable("page", page);
+            context.setVariable("size", pageSize);
+            return templateEngine.process("members/memberList", context);
+        });
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                // 캐시해 두되, 매번 ETag 로 바뀌었는지 확인하게 한다.
+                .cacheControl(CacheControl.noCache())
+                .eTag(view.getEtag())
+                .body(view.getBody());
+    }
+
+    /*
+        이름 자동완성. 입력할 때마다 호출되므로 결과 수(limit)와 prefix 길이를 작게 제한한다.
+        ex) /members/search?prefix=spr&limit=10 -> [{"id":1,"name":"spring"}, ...]
+     */
+    @GetMapping("/members/search")
+    @ResponseBody
+    public List<Member> search(@RequestParam(name = "prefix") String prefix,
+                               @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        // 빈 prefix 는 전체 회원과 같으므로 조회하지 않는다.
+        if (prefix.isEmpty() || prefix.length() > MAX_PREFIX_LENGTH) {
+            return Collections.emptyList();
+        }
+        return memberService.searchMembers(prefix, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
+    }
+
+    /*
+        전체 회원 목록을 List 로 모으지 않고, DB 커서에서 읽는 대로 members/memberList 템플릿을 렌더링해서 바로 내보낸다.
+        - th:each 는 Iterator 를 한 행씩 소비하므로 회원 수가 늘어도 힙 사용량이 일정하다.
+        - 커서는 트랜잭션 안에서만 유효하므로, 뷰 리졸버 대신 memberService.streamMembers 콜백 안에서 직접 렌더링한다.
+     */
+    @GetMapping("/members/all")
+    public ResponseEntity<StreamingResponseBody> listAll() {
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            memberService.streamMembers(members -> {
+                Context context = new Context();
+                context.setVariable("members", members.iterator());
+                templateEngine.process("members/memberList", context, writer);
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .body(body);
     }
 }
 
@@ -0,0 +1,102 @@
+package hello.hellospring.controller;
+
+import hello.hellospring.app.BloomFilter;
+import hello.hellospring.app.BloomFilterStats;
+import hello.hellospring.app.CallTreeProfiler;
+import hello.hellospring.app.LatencyRegistry;
+import hello.hellospring.app.LatencySnapshot;
+import hello.hellospring.app.StartupStep;
+import hello.hellospring.app.StartupTimeline;
+import hello.hellospring.repository.CachingMemberRepository;
+import hello.hellospring.repository.MemberCacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Controller
+public class TimeTraceController {
+    private final LatencyRegistry latencyRegistry;
+    private final CallTreeProfiler callTreeProfiler;
+    private final CachingMemberRepository cachingMemberRepository;
+    private final BloomFilter memberNameFilter;
+    private final StartupTimeline startupTimeline;
+
+    @Autowired
+    public TimeTraceController(LatencyRegistry latencyRegistry, CallTreeProfiler callTreeProfiler,
+                               CachingMemberRepository cachingMemberRepository, BloomFilter memberNameFilter,
+                               StartupTimeline startupTimeline) {
+        this.latencyRegistry = latencyRegistry;
+        this.callTreeProfiler = callTreeProfiler;
+        this.cachingMemberRepository = cachingMemberRepository;
+        this.memberNameFilter = memberNameFilter;
+        this.startupTimeline = startupTimeline;
+    }
+
+    // 메소드별 호출 수와 p50/p99/p999 지연시간(ns)을 json 으로 반환한다. (조회 전용)
+    @GetMapping("/trace/latency")
+    @ResponseBody
+    public List<LatencySnapshot> latency() {
+        return latencyRegistry.snapshots();
+    }
+
+    // 샘플링된 요청을 합친 호출 트리. flame graph 도구에 그대로 넣을 수 있는 collapsed-stack 형식이다.
+    @GetMapping(value = "/trace/call-tree", produces = "text/plain")
+    @ResponseBody
+    public String callTree(@RequestParam(name = "format", required = false, defaultValue = "collapsed") String format) {
+        return "tree".equals(format) ? callTreeProfiler.dumpTree() : callTreeProfiler.dumpCollapsed();
+    }
+
+    @GetMapping("/trace/sampling")
+    @ResponseBody
+    public double samplingRate() {
+        return callTreeProfiler.getSamplingRate();
+    }
+
+    // 재시작 없이 샘플링 비율을 바꾼다. ex) POST /trace/sampling?rate=0.01
+    @PostMapping("/trace/sampling")
+    @ResponseBody
+    public double changeSamplingRate(@RequestParam("rate") double rate) {
+        callTreeProfiler.setSamplingRate(rate);
+        return callTreeProfiler.getSamplingRate();
+    }
+
+    // 범위를 벗어난 rate 처럼 잘못된 요청 값은 500 이 아니라 400 으로 응답한다.
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    // 회원 캐시(byId, byName)의 크기와 hit / miss / eviction 수
+    @GetMapping("/trace/cache")
+    @ResponseBody
+    public List<MemberCacheStats> cache() {
+        return cachingMemberRepository.stats();
+    }
+
+    // 중복 이름 검사 Bloom filter 의 크기와 예상 / 실제 false positive 비율
+    @GetMapping("/trace/name-filter")
+    @ResponseBody
+    public BloomFilterStats nameFilter() {
+        return memberNameFilter.stats();
+    }
+
+    // 시작 단계별 시각과 생성이 오래 걸린 빈. lazy 프로필이면 요청을 받으면서 만든 빈도 나온다.
+    @GetMapping("/trace/startup")
+    @ResponseBody
+    public Map<String, List<StartupStep>> startup(@RequestParam(name = "limit", defaultValue = "20") int limit) {
+        Map<String, List<StartupStep>> result = new LinkedHashMap<>();
+        result.put("phases", startupTimeline.getPhases());
+        result.put("slowestBeans", startupTimeline.slowestBeans(limit));
+        return result;
+    }
+}
@@ -3,10 +3,18 @@ package hello.hellospring.domain;
 import javax.persistence.*;
 
 @Entity
+// 이름 검색(findByName, searchByNamePrefix)용 unique 인덱스. sql/ddl.sql 의 member_name_idx 와 같다.
+@Table(indexes = @Index(name = "member_name_idx", columnList = "name", unique = true))
 public class Member {
 
+    /*
+        IDENTITY 는 insert 를 실행해야 id 를 알 수 있어서 Hibernate 가 insert 를 바로 실행한다. (JDBC batch 불가)
+        시퀀스에서 50개씩 미리 받아두면(pooled-lo) persist 할 때 id 를 정하고, insert 는 flush 때 batch 로 보낼 수 있다.
+        allocationSize 는 sql/ddl.sql 의 member_seq increment 값과 같아야 한다.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     private Long id;
     private String name;
 
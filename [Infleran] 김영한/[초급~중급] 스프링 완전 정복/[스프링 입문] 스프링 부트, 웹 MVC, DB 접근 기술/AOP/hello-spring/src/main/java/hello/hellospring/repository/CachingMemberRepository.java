@@ -0,0 +1,173 @@
+package hello.hellospring.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hello.hellospring.domain.Member;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/*
+    다른 MemberRepository 를 감싸서 findById / findByName 결과를 캐시하는 decorator.
+    - Caffeine(W-TinyLFU) 로 최대 개수를 제한하고, ttl 이 지나면 다시 조회한다.
+    - 없는 회원(Optional.empty)은 캐시하지 않는다. 그래야 방금 가입한 이름을 중복 검사가 놓치지 않는다.
+    - save 는 write-through 이지만, 트랜잭션 안이라면 commit 된 뒤에 캐시에 넣는다. (rollback 된 회원이 캐시에 남지 않도록)
+    - 같은 키를 동시에 조회하면 한 스레드만 delegate 를 호출하고 나머지는 그 결과를 기다린다.
+    - 캐시에는 복사본을 넣고, 조회할 때마다 새 복사본을 돌려준다. 호출한 쪽이 회원을 고쳐도 캐시나 다른 호출자에게 보이지 않는다.
+    - 같은 이름의 중복 저장을 막는 것은 이 캐시가 아니라 MemberService.join 과 member_name_idx(unique) 이다.
+ */
+public class CachingMemberRepository implements MemberRepository {
+
+    private final MemberRepository delegate;
+    private final Cache<Long, Member> byId;
+    private final Cache<String, Member> byName;
+
+    public CachingMemberRepository(MemberRepository delegate, long maximumSize, Duration ttl) {
+        this.delegate = delegate;
+        this.byId = newCache(maximumSize, ttl);
+        this.byName = newCache(maximumSize, ttl);
+    }
+
+    private static <K> Cache<K, Member> newCache(long maximumSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Member save(Member member) {
+        Member saved = delegate.save(member);
+        afterCommit(saved);
+        return saved;
+    }
+
+    @Override
+    public <S extends Member> List<S> saveAll(Iterable<S> members) {
+        List<S> saved = delegate.saveAll(members);
+        afterCommit(saved.toArray(new Member[0]));
+        return saved;
+    }
+
+    @Override
+    public Optional<Member> findById(Long id) {
+        if (id == null || hasPendingWrites()) {
+            return delegate.findById(id);
+        }
+        Member member = byId.get(id, key -> delegate.findById(key).map(CachingMemberRepository::copy).orElse(null));
+        return Optional.ofNullable(member).map(CachingMemberRepository::copy);
+    }
+
+    @Override
+    public Optional<Member> findByName(String name) {
+        if (name == null || hasPendingWrites()) {
+            return delegate.findByName(name);
+        }
+        Member member = byName.get(name, key -> delegate.findByName(key).map(CachingMemberRepository::copy).orElse(null));
+        return Optional.ofNullable(member).map(CachingMemberRepository::copy);
+    }
+
+    @Override
+    public List<Member> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Member> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<Member> findPageBefore(Long beforeId, int limit) {
+        return delegate.findPageBefore(beforeId, limit);
+    }
+
+    @Override
+    public List<Member> searchByNamePrefix(String prefix, int limit) {
+        return delegate.searchByNamePrefix(prefix, limit);
+    }
+
+    @Override
+    public Stream<Member> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    public List<MemberCacheStats> stats() {
+        // eviction 은 비동기로 처리되므로, 미뤄둔 작업을 먼저 끝내야 크기와 eviction 수가 정확하다.
+        byId.cleanUp();
+        byName.cleanUp();
+        return Arrays.asList(
+                new MemberCacheStats("byId", byId.estimatedSize(), byId.stats()),
+                new MemberCacheStats("byName", byName.estimatedSize(), byName.stats()));
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byName.invalidateAll();
+    }
+
+    private void afterCommit(Member... members) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache(members);
+            return;
+        }
+        // 한 트랜잭션 안의 save 들을 모아두었다가 commit 후에 한 번에 캐시에 넣는다.
+        @SuppressWarnings("unchecked")
+        List<Member> pending = (List<Member>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Member> newPending = new ArrayList<>();
+            pending = newPending;
+            TransactionSynchronizationManager.bindResource(this, newPending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(newPending.toArray(new Member[0]));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CachingMemberRepository.this);
+                }
+            });
+        }
+        pending.addAll(Arrays.asList(members));
+    }
+
+    /*
+        아직 commit 되지 않은 회원을 저장한 트랜잭션은 자기 변경분을 볼 수 있으므로,
+        그 트랜잭션이 조회한 값은 캐시에 넣지 않고 delegate 로 바로 보낸다.
+     */
+    private boolean hasPendingWrites() {
+        return TransactionSynchronizationManager.hasResource(this);
+    }
+
+    private void cache(Member... members) {
+        for (Member member : members) {
+            Member cached = copy(member);
+            byId.put(cached.getId(), cached);
+            // 같은 이름이 이미 캐시에 있으면 먼저 가입한 회원을 유지한다. (findByName 과 같은 규칙)
+            if (cached.getName() != null) {
+                byName.asMap().putIfAbsent(cached.getName(), cached);
+            }
+        }
+    }
+
+    private static Member copy(Member member) {
+        Member copy = new Member();
+        copy.setId(member.getId());
+        copy.setName(member.getName());
+        return copy;
+    }
+}
@@ -0,0 +1,313 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+    재시작해도 회원이 남는 MemoryMemberRepository.
+    - 조회는 MemoryMemberRepository 그대로 메모리에서 한다.
+    - save 는 write-ahead log(wal-<세대>.log)에 기록되고 fsync 된 뒤에 메모리에 반영되고 반환된다. (group commit)
+    - snapshotEvery 건마다 (또는 snapshot() 을 호출하면) 다음 세대의 log 로 넘어가고,
+      그 시점의 전체 회원을 memory-mapped file 로 snapshot-<세대>.dat 에 쓴 뒤 이전 세대 파일을 지운다.
+    - 시작할 때 가장 최근 스냅샷을 읽고, 그 세대부터의 log 를 차례로 다시 적용한다.
+      마지막 log 끝의 쓰다 만 레코드(저장 중 종료)는 잘라낸다. 그 save 는 반환되지 않았으므로 잃어도 된다.
+    - clearStore 는 다음 세대의 빈 log 와 빈 스냅샷으로 넘어가고 이전 세대 파일을 지운다.
+ */
+public class DurableMemberRepository extends MemoryMemberRepository implements AutoCloseable {
+
+    public static final long DEFAULT_SNAPSHOT_EVERY = 100_000;
+
+    private static final Logger log = LoggerFactory.getLogger(DurableMemberRepository.class);
+    private static final Pattern FILE_NAME = Pattern.compile("(wal|snapshot)-(\\d+)\\.(log|dat)");
+
+    private final Path directory;
+    private final long snapshotEvery;
+    private final MemberWriteAheadLog wal;
+    private final ExecutorService snapshotExecutor;
+    private final AtomicLong appendedSinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+    private final AtomicLong snapshotFailures = new AtomicLong();
+    private volatile Exception lastSnapshotFailure;
+    // save 들은 read lock 으로 동시에 들어가 group commit 되고, clearStore 는 write lock 으로 그동안 save 를 막는다.
+    private final ReadWriteLock storeLock = new ReentrantReadWriteLock();
+    // 현재 log 의 세대. snapshot() 안에서만 바뀐다.
+    private long generation;
+
+    public DurableMemberRepository(Path directory) {
+        this(directory, DEFAULT_SNAPSHOT_EVERY);
+    }
+
+    public DurableMemberRepository(Path directory, long snapshotEvery) {
+        this.directory = directory;
+        this.snapshotEvery = snapshotEvery;
+        try {
+            Files.createDirectories(directory);
+            this.generation = recover();
+            this.wal = new MemberWriteAheadLog(walPath(generation), this::apply);
+        } catch (IOException e) {
+            throw new UncheckedIOException("회원 저장소를 복구하지 못했습니다: " + directory, e);
+        }
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "member-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Member save(Member member) {
+        storeLock.readLock().lock();
+        try {
+            member.setId(nextId());
+            append(List.of(member));
+            return member;
+        } finally {
+            storeLock.readLock().unlock();
+        }
+    }
+
+    // 여러 명을 한 번의 fsync 로 저장한다.
+    @Override
+    public <S extends Member> List<S> saveAll(Iterable<S> members) {
+        List<S> result = new ArrayList<>();
+        storeLock.readLock().lock();
+        try {
+            for (S member : members) {
+                member.setId(nextId());
+                result.add(member);
+            }
+            if (!result.isEmpty()) {
+                append(new ArrayList<>(result));
+            }
+        } finally {
+            storeLock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void append(List<Member> members) {
+        try {
+            wal.append(members).join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+        if (appendedSinceSnapshot.addAndGet(members.size()) >= snapshotEvery
+                && snapshotScheduled.compareAndSet(false, true)) {
+            snapshotExecutor.execute(() -> {
+                try {
+                    snapshot();
+                } catch (IOException | RuntimeException e) {
+                    // 스냅샷에 실패해도 log 가 남아 있으므로 잃는 회원은 없다. 다음 기회에 다시 시도한다.
+                    // 계속 실패하면 log 가 끝없이 길어지므로 횟수와 마지막 오류를 남겨 밖에서 볼 수 있게 한다.
+                    lastSnapshotFailure = e;
+                    log.error("회원 스냅샷 실패 (누적 {}회)", snapshotFailures.incrementAndGet(), e);
+                } finally {
+                    snapshotScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    // writer 스레드에서 fsync 가 끝난 회원을 메모리에 반영한다.
+    private void apply(List<Member> members) {
+        for (Member member : members) {
+            put(member);
+        }
+    }
+
+    /*
+        다음 세대 log 로 넘어간 뒤 전체 회원을 스냅샷으로 쓰고, 이전 세대 파일을 지운다.
+        rotate 가 끝나면 이전 log 의 회원은 모두 메모리에 있으므로 스냅샷에 빠짐없이 들어간다.
+        새 log 의 회원이 스냅샷에 같이 들어가도, 복구할 때 같은 id 로 다시 넣을 뿐이다.
+     */
+    public synchronized void snapshot() throws IOException {
+        long next = generation + 1;
+        try {
+            wal.rotate(walPath(next)).join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+        appendedSinceSnapshot.set(0);
+        writeSnapshot(next, findAll());
+    }
+
+    // 스냅샷을 next 세대로 쓰고, 그보다 이전 세대 파일을 지운다.
+    private void writeSnapshot(long next, List<Member> members) throws IOException {
+        Path tmp = directory.resolve(fileName("snapshot", next, "dat") + ".tmp");
+        Files.deleteIfExists(tmp);
+        MemberSnapshot.write(tmp, members);
+        Files.move(tmp, snapshotPath(next), StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory();
+        generation = next;
+
+        for (Path file : listGenerations("wal").headSet(walPath(next))) {
+            Files.deleteIfExists(file);
+        }
+        for (Path file : listGenerations("snapshot").headSet(snapshotPath(next))) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private long recover() throws IOException {
+        // 쓰다가 멈춘 스냅샷은 rename 전이므로 지우면 된다.
+        List<Path> unfinished;
+        try (Stream<Path> files = Files.list(directory)) {
+            unfinished = files.filter(file -> file.toString().endsWith(".tmp")).collect(Collectors.toList());
+        }
+        for (Path tmp : unfinished) {
+            Files.delete(tmp);
+        }
+        TreeSet<Path> snapshots = listGenerations("snapshot");
+        long base = 0;
+        if (!snapshots.isEmpty()) {
+            Path latest = snapshots.last();
+            base = generationOf(latest);
+            MemberSnapshot.read(latest, this::restore);
+        }
+
+        long last = base;
+        TreeSet<Path> logs = listGenerations("wal");
+        for (Path log : logs) {
+            long logGeneration = generationOf(log);
+            if (logGeneration < base) {
+                continue;
+            }
+            long valid = MemberWriteAheadLog.replay(log, this::restore);
+            if (valid < Files.size(log)) {
+                if (!log.equals(logs.last())) {
+                    // 마지막이 아닌 log 는 rotate 전에 fsync 가 끝났으므로 중간에 끊길 수 없다.
+                    throw new IOException("write-ahead log 가 손상되었습니다: " + log);
+                }
+                try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+                    channel.truncate(valid);
+                    channel.force(true);
+                }
+            }
+            last = logGeneration;
+        }
+        return last;
+    }
+
+    /*
+        rename, 생성한 파일이 디렉터리에도 기록되도록 디렉터리를 fsync 한다.
+        Windows 처럼 디렉터리를 열 수 없는 OS 에서는 건너뛴다.
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // 지원하지 않는 OS
+        }
+    }
+
+    // 세대 번호를 0 으로 채운 이름이므로 Path 의 사전순이 곧 세대순이다.
+    private TreeSet<Path> listGenerations(String kind) throws IOException {
+        TreeSet<Path> result = new TreeSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches() && matcher.group(1).equals(kind)) {
+                    result.add(file);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static long generationOf(Path file) {
+        Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(file.toString());
+        }
+        return Long.parseLong(matcher.group(2));
+    }
+
+    private Path walPath(long generation) {
+        return directory.resolve(fileName("wal", generation, "log"));
+    }
+
+    private Path snapshotPath(long generation) {
+        return directory.resolve(fileName("snapshot", generation, "dat"));
+    }
+
+    private static String fileName(String kind, long generation, String extension) {
+        return String.format("%s-%019d.%s", kind, generation, extension);
+    }
+
+    // 백그라운드 스냅샷이 실패한 횟수
+    public long getSnapshotFailures() {
+        return snapshotFailures.get();
+    }
+
+    // 마지막으로 실패한 백그라운드 스냅샷의 오류. 실패한 적이 없으면 empty.
+    public Optional<Exception> getLastSnapshotFailure() {
+        return Optional.ofNullable(lastSnapshotFailure);
+    }
+
+    /*
+        모든 회원을 지우고 id 를 1 부터 다시 사용한다. 다시 열어도 빈 저장소로 복구된다.
+        write lock 으로 진행 중인 save 가 끝나기를 기다리고 새 save 를 막은 뒤,
+        다음 세대의 빈 log 로 넘어가고 빈 스냅샷을 써서 이전 세대 파일을 모두 지운다.
+     */
+    @Override
+    public synchronized void clearStore() {
+        storeLock.writeLock().lock();
+        try {
+            long next = generation + 1;
+            wal.rotate(walPath(next)).join();
+            super.clearStore();
+            resetSequence();
+            appendedSinceSnapshot.set(0);
+            writeSnapshot(next, List.of());
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        } catch (IOException e) {
+            throw new UncheckedIOException("회원 저장소를 비우지 못했습니다: " + directory, e);
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshotExecutor.shutdown();
+        try {
+            snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 진행 중인 save 가 끝나기를 기다린 뒤에 닫는다. 이후의 save 는 log 가 닫혔다는 예외로 실패한다.
+        storeLock.writeLock().lock();
+        try {
+            wal.close();
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+    }
+}
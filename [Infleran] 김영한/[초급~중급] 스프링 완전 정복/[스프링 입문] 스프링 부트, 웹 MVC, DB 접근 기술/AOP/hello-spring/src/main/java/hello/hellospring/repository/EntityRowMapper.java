@@ -0,0 +1,218 @@
+package hello.hellospring.repository;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/*
+    ResultSet 의 행을 엔티티로 바꾸는 mapper. 엔티티 타입마다 하나만 만들어 공유한다. (forType)
+    - 기본 생성자와 setter 는 처음 한 번 LambdaMetafactory 로 Supplier / BiConsumer 를 만들어 두고, 행마다 reflection 없이 호출한다.
+    - 컬럼 label -> (컬럼 번호, 타입별 getter, setter) 대응표(Plan)는 ResultSet 마다 한 번 ResultSetMetaData 로 찾고,
+      같은 컬럼 구성이면 캐시된 Plan 을 다시 쓴다. 행마다 label 로 컬럼을 찾지 않는다.
+    - 컬럼 label 은 대소문자를 구분하지 않고, snake_case 도 camelCase 프로퍼티에 대응한다. 대응하는 프로퍼티가 없는 컬럼은 무시한다.
+ */
+final class EntityRowMapper<T> implements ResultSetExtractor<List<T>> {
+
+    private static final ClassValue<EntityRowMapper<?>> MAPPERS = new ClassValue<EntityRowMapper<?>>() {
+        @Override
+        protected EntityRowMapper<?> computeValue(Class<?> type) {
+            return new EntityRowMapper<>(type);
+        }
+    };
+
+    private final Supplier<T> constructor;
+    // 소문자 컬럼 이름 -> 프로퍼티
+    private final Map<String, Property> properties = new HashMap<>();
+    // 컬럼 label 목록 -> Plan
+    private final ConcurrentMap<String, Plan> plans = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    static <T> EntityRowMapper<T> forType(Class<T> type) {
+        return (EntityRowMapper<T>) MAPPERS.get(type);
+    }
+
+    private EntityRowMapper(Class<T> type) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            this.constructor = constructor(lookup, type);
+            for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(type)) {
+                if (descriptor.getWriteMethod() == null) {
+                    continue;
+                }
+                Property property = new Property(descriptor.getPropertyType(), setter(lookup, type, descriptor));
+                properties.put(descriptor.getName().toLowerCase(Locale.ROOT), property);
+                properties.put(toSnakeCase(descriptor.getName()), property);
+            }
+        } catch (Throwable e) {
+            throw new IllegalStateException(type.getName() + " 의 RowMapper 를 만들 수 없습니다.", e);
+        }
+    }
+
+    @Override
+    public List<T> extractData(ResultSet rs) throws SQLException {
+        Plan plan = plan(rs);
+        List<T> result = new ArrayList<>();
+        while (rs.next()) {
+            result.add(plan.map(rs));
+        }
+        return result;
+    }
+
+    // 이 ResultSet 전용 RowMapper. Plan 은 지금 한 번만 찾는다. (JdbcStreams 처럼 한 행씩 꺼낼 때)
+    RowMapper<T> rowMapperFor(ResultSet rs) throws SQLException {
+        Plan plan = plan(rs);
+        return (resultSet, rowNum) -> plan.map(resultSet);
+    }
+
+    private Plan plan(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] labels = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1).toLowerCase(Locale.ROOT);
+        }
+        return plans.computeIfAbsent(String.join(",", labels), key -> new Plan(labels));
+    }
+
+    private final class Plan {
+        final int[] columns;
+        final ColumnReader[] readers;
+        final BiConsumer<Object, Object>[] setters;
+        final boolean[] primitives;
+
+        @SuppressWarnings("unchecked")
+        Plan(String[] labels) {
+            List<Integer> matched = new ArrayList<>();
+            for (int i = 0; i < labels.length; i++) {
+                if (properties.containsKey(labels[i])) {
+                    matched.add(i);
+                }
+            }
+            columns = new int[matched.size()];
+            readers = new ColumnReader[matched.size()];
+            setters = new BiConsumer[matched.size()];
+            primitives = new boolean[matched.size()];
+            for (int k = 0; k < matched.size(); k++) {
+                Property property = properties.get(labels[matched.get(k)]);
+                columns[k] = matched.get(k) + 1;
+                readers[k] = ColumnReader.of(property.type);
+                setters[k] = property.setter;
+                primitives[k] = property.type.isPrimitive();
+            }
+        }
+
+        T map(ResultSet rs) throws SQLException {
+            T entity = constructor.get();
+            for (int k = 0; k < columns.length; k++) {
+                Object value = readers[k].read(rs, columns[k]);
+                // primitive 프로퍼티에는 null 을 넣을 수 없으므로 기본값 그대로 둔다.
+                if (value != null || !primitives[k]) {
+                    setters[k].accept(entity, value);
+                }
+            }
+            return entity;
+        }
+    }
+
+    private static final class Property {
+        final Class<?> type;
+        final BiConsumer<Object, Object> setter;
+
+        Property(Class<?> type, BiConsumer<Object, Object> setter) {
+            this.type = type;
+            this.setter = setter;
+        }
+    }
+
+    // 프로퍼티 타입에 맞는 ResultSet getter. getLong 처럼 primitive 를 반환하는 getter 는 wasNull 로 null 을 구분한다.
+    private interface ColumnReader {
+        Object read(ResultSet rs, int column) throws SQLException;
+
+        static ColumnReader of(Class<?> type) {
+            if (type == Long.class || type == long.class) {
+                return (rs, column) -> {
+                    long value = rs.getLong(column);
+                    return value == 0 && rs.wasNull() ? null : value;
+                };
+            }
+            if (type == Integer.class || type == int.class) {
+                return (rs, column) -> {
+                    int value = rs.getInt(column);
+                    return value == 0 && rs.wasNull() ? null : value;
+                };
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return (rs, column) -> {
+                    boolean value = rs.getBoolean(column);
+                    return !value && rs.wasNull() ? null : value;
+                };
+            }
+            if (type == Double.class || type == double.class) {
+                return (rs, column) -> {
+                    double value = rs.getDouble(column);
+                    return value == 0 && rs.wasNull() ? null : value;
+                };
+            }
+            if (type == String.class) {
+                return ResultSet::getString;
+            }
+            return (rs, column) -> rs.getObject(column, type);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> constructor(MethodHandles.Lookup lookup, Class<T> type) throws Throwable {
+        MethodHandle handle = lookup.findConstructor(type, MethodType.methodType(void.class));
+        CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                MethodType.methodType(Supplier.class),
+                MethodType.methodType(Object.class),
+                handle,
+                MethodType.methodType(type));
+        return (Supplier<T>) site.getTarget().invoke();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(MethodHandles.Lookup lookup, Class<?> type,
+                                                     PropertyDescriptor descriptor) throws Throwable {
+        MethodHandle handle = lookup.unreflect(descriptor.getWriteMethod());
+        Class<?> parameterType = MethodType.methodType(descriptor.getPropertyType()).wrap().returnType();
+        CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                handle,
+                MethodType.methodType(void.class, type, parameterType));
+        return (BiConsumer<Object, Object>) site.getTarget().invoke();
+    }
+
+    private static String toSnakeCase(String name) {
+        StringBuilder snake = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                snake.append('_').append(Character.toLowerCase(c));
+            } else {
+                snake.append(c);
+            }
+        }
+        return snake.toString();
+    }
+}
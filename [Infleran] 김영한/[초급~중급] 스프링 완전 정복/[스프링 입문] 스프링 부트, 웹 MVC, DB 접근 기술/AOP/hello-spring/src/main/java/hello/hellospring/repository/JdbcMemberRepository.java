@@ -6,11 +6,20 @@ import org.springframework.jdbc.datasource.DataSourceUtils;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class JdbcMemberRepository implements MemberRepository {
 
+    // saveAll 에서 한 번에 DB 로 보내는 insert 문의 개수
+    private static final int BATCH_SIZE = 1000;
+    // streamAll 에서 한 번에 가져올 행 수
+    private static final int FETCH_SIZE = 500;
+    // 행 -> Member 변환. JdbcTemplateMemberRepository 와 같은 mapper 를 공유한다.
+    private static final EntityRowMapper<Member> MEMBER_MAPPER = EntityRowMapper.forType(Member.class);
+
     private final DataSource dataSource;
 
     public JdbcMemberRepository(DataSource dataSource) {
@@ -53,6 +62,55 @@ public class JdbcMemberRepository implements MemberRepository {
             close(conn, pstmt, rs);
         }
     }
+    @Override
+    public <S extends Member> List<S> saveAll(Iterable<S> members) {
+        String sql = "insert into member(name) values(?)";
+
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+
+        try {
+            conn = getConnection();
+            pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+
+            List<S> saved = new ArrayList<>();
+            List<S> batch = new ArrayList<>(BATCH_SIZE);
+            for (S member : members) {
+                pstmt.setString(1, member.getName());
+                // 바로 실행하지 않고 모아두었다가 executeBatch 로 한 번에 보낸다.
+                pstmt.addBatch();
+                batch.add(member);
+                if (batch.size() == BATCH_SIZE) {
+                    executeBatch(pstmt, batch);
+                    saved.addAll(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                executeBatch(pstmt, batch);
+                saved.addAll(batch);
+            }
+            return saved;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            close(conn, pstmt, null);
+        }
+    }
+
+    private void executeBatch(PreparedStatement pstmt, List<? extends Member> batch) throws SQLException {
+        pstmt.executeBatch();
+        // batch 로 생성된 key 는 insert 한 순서대로 돌려받는다.
+        try (ResultSet keys = pstmt.getGeneratedKeys()) {
+            for (Member member : batch) {
+                if (!keys.next()) {
+                    throw new SQLException("id 조회 실패");
+                }
+                member.setId(keys.getLong(1));
+            }
+        }
+    }
+
     @Override
     public Optional<Member> findById(Long id) {
         String sql = "select * from member where id = ?";
@@ -69,14 +127,7 @@ public class JdbcMemberRepository implements MemberRepository {
             // Query 실행
             rs = pstmt.executeQuery();
 
-            if(rs.next()) {
-                Member member = new Member();
-                member.setId(rs.getLong("id"));
-                member.setName(rs.getString("name"));
-                return Optional.of(member);
-            } else {
-                return Optional.empty();
-            }
+            return MEMBER_MAPPER.extractData(rs).stream().findAny();
         } catch (Exception e) {
             throw new IllegalStateException(e);
         } finally {
@@ -97,20 +148,73 @@ public class JdbcMemberRepository implements MemberRepository {
 
             rs = pstmt.executeQuery();
 
-            List<Member> members = new ArrayList<>();
-            while(rs.next()) {
-                Member member = new Member();
-                member.setId(rs.getLong("id"));
-                member.setName(rs.getString("name"));
-                members.add(member);
-            }
-            return members;
+            return MEMBER_MAPPER.extractData(rs);
         } catch (Exception e) {
             throw new IllegalStateException(e);
         } finally {
             close(conn, pstmt, rs);
         }
     }
+    @Override
+    public List<Member> findPage(Long afterId, int limit) {
+        // id 는 primary key 이므로 인덱스를 타고 afterId 다음 행부터 limit 개만 읽는다.
+        String sql = "select * from member where id > ? order by id limit ?";
+        return findMembers(sql, afterId == null ? 0L : afterId, limit);
+    }
+
+    @Override
+    public List<Member> findPageBefore(Long beforeId, int limit) {
+        String sql = "select * from member where id < ? order by id desc limit ?";
+        List<Member> members = findMembers(sql, beforeId == null ? Long.MAX_VALUE : beforeId, limit);
+        Collections.reverse(members);
+        return members;
+    }
+
+    @Override
+    public List<Member> searchByNamePrefix(String prefix, int limit) {
+        String sql = "select * from member where name like ? escape '\\' order by name limit ?";
+
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = getConnection();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, LikePatterns.startsWith(prefix));
+            pstmt.setInt(2, limit);
+
+            rs = pstmt.executeQuery();
+
+            return MEMBER_MAPPER.extractData(rs);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            close(conn, pstmt, rs);
+        }
+    }
+
+    private List<Member> findMembers(String sql, long cursor, int limit) {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = getConnection();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setLong(1, cursor);
+            pstmt.setInt(2, limit);
+
+            rs = pstmt.executeQuery();
+
+            return MEMBER_MAPPER.extractData(rs);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            close(conn, pstmt, rs);
+        }
+    }
+
     @Override
     public Optional<Member> findByName(String name) {
         String sql = "select * from member where name = ?";
@@ -126,19 +230,19 @@ public class JdbcMemberRepository implements MemberRepository {
 
             rs = pstmt.executeQuery();
 
-            if(rs.next()) {
-                Member member = new Member();
-                member.setId(rs.getLong("id"));
-                member.setName(rs.getString("name"));
-                return Optional.of(member);
-            }
-            return Optional.empty();
+            return MEMBER_MAPPER.extractData(rs).stream().findAny();
         } catch (Exception e) {
             throw new IllegalStateException(e);
         } finally {
             close(conn, pstmt, rs);
         }
     }
+    @Override
+    public Stream<Member> streamAll() {
+        String sql = "select * from member";
+        return JdbcStreams.stream(dataSource, sql, FETCH_SIZE, MEMBER_MAPPER);
+    }
+
     private Connection getConnection() {
         return DataSourceUtils.getConnection(dataSource);
     }
@@ -0,0 +1,82 @@
+package hello.hellospring.repository;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+    forward-only 커서를 열어두고 한 행씩 꺼내는 Stream 을 만든다.
+    - 전체 결과를 List 로 만들지 않으므로 회원 수가 늘어도 힙 사용량이 일정하다.
+    - fetchSize 만큼씩 DB 에서 가져오며, Stream 을 close 해야 커서와 커넥션이 반납된다.
+    - 트랜잭션 안에서 호출하면 트랜잭션의 커넥션을 그대로 사용한다. (DataSourceUtils)
+ */
+final class JdbcStreams {
+
+    private JdbcStreams() {
+    }
+
+    static <T> Stream<T> stream(DataSource dataSource, String sql, int fetchSize, EntityRowMapper<T> entityMapper) {
+        Connection conn = DataSourceUtils.getConnection(dataSource);
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        RowMapper<T> rowMapper;
+        try {
+            pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(fetchSize);
+            rs = pstmt.executeQuery();
+            rowMapper = entityMapper.rowMapperFor(rs);
+        } catch (SQLException e) {
+            close(dataSource, conn, pstmt, rs);
+            throw new IllegalStateException(e);
+        }
+
+        PreparedStatement statement = pstmt;
+        ResultSet resultSet = rs;
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int rowNum = 0;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    action.accept(rowMapper.mapRow(resultSet, rowNum++));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> close(dataSource, conn, statement, resultSet));
+    }
+
+    private static void close(DataSource dataSource, Connection conn, PreparedStatement pstmt, ResultSet rs) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        try {
+            if (pstmt != null) {
+                pstmt.close();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        DataSourceUtils.releaseConnection(conn, dataSource);
+    }
+}
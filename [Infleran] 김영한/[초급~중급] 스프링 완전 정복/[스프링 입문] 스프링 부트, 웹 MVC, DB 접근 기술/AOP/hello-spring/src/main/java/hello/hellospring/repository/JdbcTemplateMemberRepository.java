@@ -2,30 +2,51 @@ package hello.hellospring.repository;
 
 import hello.hellospring.domain.Member;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.PreparedStatementCallback;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 
 import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class JdbcTemplateMemberRepository implements MemberRepository{
 
+    private static final int BATCH_SIZE = 1000;
+    private static final int DEFAULT_FETCH_SIZE = 500;
+    // 엔티티 타입마다 한 번 만들어 둔 mapper. 컬럼 번호는 쿼리마다 ResultSetMetaData 로 한 번만 찾는다.
+    private static final EntityRowMapper<Member> MEMBER_MAPPER = EntityRowMapper.forType(Member.class);
+
     private final JdbcTemplate jdbcTemplate;
+    // 테이블 메타데이터 조회는 처음 한 번만 하도록 insert 정의를 재사용한다. (compile 이후에는 thread-safe)
+    private final SimpleJdbcInsert jdbcInsert;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
 
     // 생성자가 하나 뿐이므로, Autowired 생략 가능
     public JdbcTemplateMemberRepository(DataSource dataSource) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcInsert = new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName("member")
+                .usingColumns("name")
+                .usingGeneratedKeyColumns("id");
+    }
+
+    // streamAll 에서 한 번에 가져올 행 수
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
     }
 
     @Override
     public Member save(Member member) {
-        SimpleJdbcInsert jdbcInsert = new SimpleJdbcInsert(jdbcTemplate);
-        jdbcInsert.withTableName("member").usingGeneratedKeyColumns("id");
-
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("name", member.getName());
 
@@ -34,30 +55,87 @@ public class JdbcTemplateMemberRepository implements MemberRepository{
         return member;
     }
 
+    @Override
+    public <S extends Member> List<S> saveAll(Iterable<S> members) {
+        // SimpleJdbcInsert.executeBatch 는 생성된 key 를 돌려주지 않으므로, 같은 insert 문으로 직접 batch 를 실행한다.
+        jdbcInsert.compile();
+        return jdbcTemplate.execute(
+                con -> con.prepareStatement(jdbcInsert.getInsertString(), Statement.RETURN_GENERATED_KEYS),
+                (PreparedStatementCallback<List<S>>) ps -> {
+                    List<S> saved = new ArrayList<>();
+                    List<S> batch = new ArrayList<>(BATCH_SIZE);
+                    for (S member : members) {
+                        ps.setString(1, member.getName());
+                        ps.addBatch();
+                        batch.add(member);
+                        if (batch.size() == BATCH_SIZE) {
+                            executeBatch(ps, batch);
+                            saved.addAll(batch);
+                            batch.clear();
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        executeBatch(ps, batch);
+                        saved.addAll(batch);
+                    }
+                    return saved;
+                });
+    }
+
+    private void executeBatch(PreparedStatement ps, List<? extends Member> batch) throws SQLException {
+        ps.executeBatch();
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            for (Member member : batch) {
+                if (!keys.next()) {
+                    throw new SQLException("id 조회 실패");
+                }
+                member.setId(keys.getLong(1));
+            }
+        }
+    }
+
     @Override
     public Optional<Member> findById(Long id) {
-        List<Member> query = jdbcTemplate.query("select * from member where id = ?", memberRowMapper(), id);
+        List<Member> query = jdbcTemplate.query("select * from member where id = ?", MEMBER_MAPPER, id);
         // stream의 findAny 메소드로 반환시, 결과가 없을 것도 고려하여 반환형을 Optional로 감싸주어야 한다.
         return query.stream().findAny();
     }
 
     @Override
     public Optional<Member> findByName(String name) {
-        List<Member> query = jdbcTemplate.query("select * from member where name = ?", memberRowMapper(), name);
+        List<Member> query = jdbcTemplate.query("select * from member where name = ?", MEMBER_MAPPER, name);
         return query.stream().findAny();
     }
 
     @Override
     public List<Member> findAll() {
-        return jdbcTemplate.query("select * from member", memberRowMapper());
+        return jdbcTemplate.query("select * from member", MEMBER_MAPPER);
+    }
+
+    @Override
+    public List<Member> findPage(Long afterId, int limit) {
+        return jdbcTemplate.query("select * from member where id > ? order by id limit ?", MEMBER_MAPPER,
+                afterId == null ? 0L : afterId, limit);
+    }
+
+    @Override
+    public List<Member> findPageBefore(Long beforeId, int limit) {
+        List<Member> members = jdbcTemplate.query("select * from member where id < ? order by id desc limit ?", MEMBER_MAPPER,
+                beforeId == null ? Long.MAX_VALUE : beforeId, limit);
+        Collections.reverse(members);
+        return members;
     }
 
-    private RowMapper<Member> memberRowMapper(){
-        return (rs, rowNum) -> {
-            Member member = new Member();
-            member.setId(rs.getLong("id"));
-            member.setName(rs.getString("name"));
-            return member;
-        };
+    @Override
+    public List<Member> searchByNamePrefix(String prefix, int limit) {
+        return jdbcTemplate.query("select * from member where name like ? escape '\\' order by name limit ?", MEMBER_MAPPER,
+                LikePatterns.startsWith(prefix), limit);
     }
+
+    @Override
+    public Stream<Member> streamAll() {
+        // Spring 5.2 의 JdbcTemplate 에는 queryForStream 이 없으므로 커서를 직접 연다.
+        return JdbcStreams.stream(jdbcTemplate.getDataSource(), "select * from member", fetchSize, MEMBER_MAPPER);
+    }
+
 }
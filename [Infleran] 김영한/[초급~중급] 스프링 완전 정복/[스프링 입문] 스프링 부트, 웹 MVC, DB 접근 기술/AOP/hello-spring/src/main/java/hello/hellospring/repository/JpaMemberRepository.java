@@ -1,17 +1,37 @@
 package hello.hellospring.repository;
 
 import hello.hellospring.domain.Member;
+import org.springframework.dao.DataAccessException;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
 
 import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class JpaMemberRepository implements MemberRepository{
 
+    private static final HibernateJpaDialect JPA_DIALECT = new HibernateJpaDialect();
+
     private final EntityManager em;
+    private final MemberStreamingRepositoryImpl streamingRepository;
+    private final MemberBatchRepositoryImpl batchRepository;
 
     public JpaMemberRepository(EntityManager em) {
         this.em = em;
+        this.streamingRepository = new MemberStreamingRepositoryImpl(em);
+        this.batchRepository = new MemberBatchRepositoryImpl(em);
+    }
+
+    public void setFetchSize(int fetchSize) {
+        streamingRepository.setFetchSize(fetchSize);
+    }
+
+    // saveAll 에서 flush 할 간격
+    public void setBatchSize(int batchSize) {
+        batchRepository.setBatchSize(batchSize);
     }
 
     @Override
@@ -20,6 +40,22 @@ public class JpaMemberRepository implements MemberRepository{
         return member;
     }
 
+    // Spring Data 리포지토리처럼 unique 제약 위반 등을 DataAccessException 으로 바꿔서 던진다.
+    @Override
+    public void flush() {
+        try {
+            em.flush();
+        } catch (PersistenceException e) {
+            DataAccessException translated = JPA_DIALECT.translateExceptionIfPossible(e);
+            throw translated != null ? translated : e;
+        }
+    }
+
+    @Override
+    public <S extends Member> List<S> saveAll(Iterable<S> members) {
+        return batchRepository.saveAll(members);
+    }
+
     @Override
     public Optional<Member> findById(Long id) {
         Member member = em.find(Member.class, id);
@@ -39,4 +75,36 @@ public class JpaMemberRepository implements MemberRepository{
         return em.createQuery("select m from Member m", Member.class)
                 .getResultList();
     }
+
+    @Override
+    public List<Member> findPage(Long afterId, int limit) {
+        return em.createQuery("select m from Member m where m.id > :afterId order by m.id", Member.class)
+                .setParameter("afterId", afterId == null ? 0L : afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Member> findPageBefore(Long beforeId, int limit) {
+        List<Member> members = em.createQuery("select m from Member m where m.id < :beforeId order by m.id desc", Member.class)
+                .setParameter("beforeId", beforeId == null ? Long.MAX_VALUE : beforeId)
+                .setMaxResults(limit)
+                .getResultList();
+        // getResultList 는 수정 가능한 목록을 돌려준다.
+        Collections.reverse(members);
+        return members;
+    }
+
+    @Override
+    public List<Member> searchByNamePrefix(String prefix, int limit) {
+        return em.createQuery("select m from Member m where m.name like :pattern escape '\\' order by m.name", Member.class)
+                .setParameter("pattern", LikePatterns.startsWith(prefix))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Member> streamAll() {
+        return streamingRepository.streamAll();
+    }
 }
@@ -0,0 +1,24 @@
+package hello.hellospring.repository;
+
+/*
+    like 검색어 만들기. 사용자가 입력한 %, _ 가 와일드카드로 해석되지 않도록 escape 문자(\)를 붙인다.
+    쿼리에는 escape '\' 를 함께 적는다.
+ */
+final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    // "a_b" -> "a\_b%"
+    static String startsWith(String prefix) {
+        StringBuilder pattern = new StringBuilder(prefix.length() + 1);
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -0,0 +1,10 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+
+import java.util.List;
+
+// SpringDataJpaMemberRepository 의 saveAll 을 MemberBatchRepositoryImpl 의 구현으로 바꾸기 위한 fragment
+public interface MemberBatchRepository {
+    <S extends Member> List<S> saveAll(Iterable<S> members);
+}
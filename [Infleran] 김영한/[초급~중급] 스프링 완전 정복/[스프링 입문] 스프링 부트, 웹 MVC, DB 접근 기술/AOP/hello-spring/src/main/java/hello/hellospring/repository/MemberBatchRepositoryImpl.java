@@ -0,0 +1,62 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    대량 저장용 saveAll.
+    batchSize 명마다 flush 해서 insert 를 JDBC batch 로 보내고, clear 해서 영속성 컨텍스트가 저장한 회원 수만큼 커지지 않게 한다.
+    - batch 로 보내려면 hibernate.jdbc.batch_size 가 설정되어 있어야 하고, id 가 IDENTITY 가 아니어야 한다. (Member 는 시퀀스)
+    - clear 하므로 같은 트랜잭션에서 먼저 읽어둔 엔티티도 detach 된다. 반환된 회원들도 detach 상태이다.
+ */
+public class MemberBatchRepositoryImpl implements MemberBatchRepository {
+
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    private final EntityManager em;
+    private int batchSize;
+
+    public MemberBatchRepositoryImpl(EntityManager em) {
+        this(em, DEFAULT_BATCH_SIZE);
+    }
+
+    // Spring Data 가 fragment 빈을 만들 때는 hibernate.jdbc.batch_size 와 같은 값을 사용한다.
+    @Autowired
+    public MemberBatchRepositoryImpl(EntityManager em,
+                                     @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:" + DEFAULT_BATCH_SIZE + "}") int batchSize) {
+        this.em = em;
+        this.batchSize = batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public <S extends Member> List<S> saveAll(Iterable<S> members) {
+        List<S> result = new ArrayList<>();
+        int pending = 0;
+        for (S member : members) {
+            em.persist(member);
+            result.add(member);
+            if (++pending == batchSize) {
+                flushAndClear();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            flushAndClear();
+        }
+        return result;
+    }
+
+    private void flushAndClear() {
+        em.flush();
+        em.clear();
+    }
+}
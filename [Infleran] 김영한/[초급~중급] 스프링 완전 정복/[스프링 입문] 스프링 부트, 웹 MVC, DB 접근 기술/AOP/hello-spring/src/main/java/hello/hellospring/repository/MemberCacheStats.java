@@ -0,0 +1,49 @@
+package hello.hellospring.repository;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/*
+    CachingMemberRepository 캐시 하나의 특정 시점 통계. (json 으로 보여주기 위해 getter 로 감싼다)
+ */
+public class MemberCacheStats {
+
+    private final String name;
+    private final long size;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final double hitRate;
+
+    public MemberCacheStats(String name, long size, CacheStats stats) {
+        this.name = name;
+        this.size = size;
+        this.hitCount = stats.hitCount();
+        this.missCount = stats.missCount();
+        this.evictionCount = stats.evictionCount();
+        this.hitRate = stats.hitRate();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+}
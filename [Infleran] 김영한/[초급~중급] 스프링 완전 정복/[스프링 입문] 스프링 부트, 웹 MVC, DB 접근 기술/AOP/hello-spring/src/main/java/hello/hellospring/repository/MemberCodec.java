@@ -0,0 +1,46 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/*
+    write-ahead log 와 스냅샷 파일에서 회원 한 명을 나타내는 형식.
+    [id: long][이름 byte 수: int, null 이면 -1][이름: UTF-8]
+ */
+final class MemberCodec {
+
+    private MemberCodec() {
+    }
+
+    static byte[] encodeName(Member member) {
+        return member.getName() == null ? null : member.getName().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static int size(byte[] name) {
+        return Long.BYTES + Integer.BYTES + (name == null ? 0 : name.length);
+    }
+
+    static void write(ByteBuffer buffer, long id, byte[] name) {
+        buffer.putLong(id);
+        if (name == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(name.length);
+            buffer.put(name);
+        }
+    }
+
+    static Member read(ByteBuffer buffer) {
+        Member member = new Member();
+        member.setId(buffer.getLong());
+        int length = buffer.getInt();
+        if (length >= 0) {
+            byte[] name = new byte[length];
+            buffer.get(name);
+            member.setName(new String(name, StandardCharsets.UTF_8));
+        }
+        return member;
+    }
+}
@@ -4,11 +4,29 @@ import hello.hellospring.domain.Member;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MemberRepository {
     Member save(Member member);
+    // 여러 회원을 한 번에 저장하고, 생성된 id 가 채워진 회원 목록을 반환한다.
+    // Spring Data JPA 의 JpaRepository.saveAll 과 같은 시그니처로 맞추어 SpringDataJpaMemberRepository 는 그대로 사용한다.
+    <S extends Member> List<S> saveAll(Iterable<S> members);
     Optional<Member> findById(Long id);
     Optional<Member> findByName(String name);
     List<Member> findAll();
+    // keyset 페이지네이션. id 가 afterId 보다 큰 회원을 id 순으로 최대 limit 명 (afterId 가 null 이면 처음부터)
+    // offset 을 쓰지 않고 id 인덱스로 바로 찾아가므로, 몇 번째 페이지든 조회 비용이 같다.
+    List<Member> findPage(Long afterId, int limit);
+    // id 가 beforeId 보다 작은 회원 중 마지막 limit 명을 id 순으로 (이전 페이지, beforeId 가 null 이면 마지막 페이지)
+    List<Member> findPageBefore(Long beforeId, int limit);
+    // 이름이 prefix 로 시작하는 회원을 이름 순으로 최대 limit 명 (자동완성)
+    // SQL 구현체는 인덱스를 탈 수 있도록 앞부분이 고정된 like 'prefix%' 로 조회한다.
+    List<Member> searchByNamePrefix(String prefix, int limit);
+    // findAll 과 달리 한 행씩 읽어오는 Stream. DB 커서를 사용하므로 트랜잭션 안에서 호출하고, 사용 후 반드시 close 해야 한다.
+    Stream<Member> streamAll();
+    // 쌓아둔 insert 를 지금 DB 로 보낸다. unique 제약 위반을 commit 때가 아니라 이 호출에서 알 수 있다.
+    // 저장을 바로 실행하는 구현체는 할 일이 없다.
+    default void flush() {
+    }
 }
 
@@ -0,0 +1,85 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/*
+    전체 회원을 한 파일에 담은 스냅샷. memory-mapped file 로 쓰고 읽는다.
+    [magic: int][version: int][회원 수: long][회원 ... (MemberCodec 형식)][앞의 모든 byte 의 CRC32: int]
+ */
+final class MemberSnapshot {
+
+    private static final int MAGIC = 0x4D454D42; // "MEMB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES;
+
+    private MemberSnapshot() {
+    }
+
+    // file 에 members 를 쓰고 force 한다. 파일은 처음부터 정확한 크기로 만든다.
+    static void write(Path file, Collection<Member> members) throws IOException {
+        long[] ids = new long[members.size()];
+        byte[][] names = new byte[members.size()][];
+        long size = HEADER_SIZE + Integer.BYTES;
+        int count = 0;
+        for (Member member : members) {
+            ids[count] = member.getId();
+            names[count] = MemberCodec.encodeName(member);
+            size += MemberCodec.size(names[count]);
+            count++;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("스냅샷이 2GB 를 넘습니다: " + size);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putLong(count);
+            for (int i = 0; i < count; i++) {
+                MemberCodec.write(buffer, ids[i], names[i]);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().flip());
+            buffer.putInt((int) crc.getValue());
+            buffer.force();
+        }
+    }
+
+    // CRC 가 맞지 않으면 IOException. 스냅샷은 rename 으로만 생기므로 깨졌다면 디스크 문제이다.
+    static long read(Path file, Consumer<Member> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + Integer.BYTES) {
+                throw new IOException("스냅샷이 너무 짧습니다: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer body = buffer.duplicate();
+            body.limit((int) size - Integer.BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if ((int) crc.getValue() != buffer.getInt((int) size - Integer.BYTES)) {
+                throw new IOException("스냅샷 CRC 가 맞지 않습니다: " + file);
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("스냅샷 형식이 아닙니다: " + file);
+            }
+            long count = buffer.getLong();
+            for (long i = 0; i < count; i++) {
+                consumer.accept(MemberCodec.read(buffer));
+            }
+            return count;
+        }
+    }
+}
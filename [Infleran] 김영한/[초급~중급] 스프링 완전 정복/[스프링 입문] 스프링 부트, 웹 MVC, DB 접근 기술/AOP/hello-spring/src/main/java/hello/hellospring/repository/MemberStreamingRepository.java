@@ -0,0 +1,13 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+
+import java.util.stream.Stream;
+
+/*
+    SpringDataJpaMemberRepository 에 streamAll 구현을 붙이기 위한 Spring Data custom fragment.
+    구현은 이름 규칙에 따라 MemberStreamingRepositoryImpl 이 사용된다.
+ */
+public interface MemberStreamingRepository {
+    Stream<Member> streamAll();
+}
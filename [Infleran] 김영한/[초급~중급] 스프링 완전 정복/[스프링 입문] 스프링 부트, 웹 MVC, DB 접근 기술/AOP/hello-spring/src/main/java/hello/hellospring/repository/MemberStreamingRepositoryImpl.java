@@ -0,0 +1,34 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import java.util.stream.Stream;
+
+public class MemberStreamingRepositoryImpl implements MemberStreamingRepository {
+
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    private final EntityManager em;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
+    public MemberStreamingRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Stream<Member> streamAll() {
+        // getResultStream 은 Hibernate 의 forward-only ScrollableResults 로 동작한다.
+        // 읽은 엔티티를 바로 detach 해서 영속성 컨텍스트(1차 캐시)가 회원 수만큼 커지지 않게 한다.
+        return em.createQuery("select m from Member m", Member.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+                .peek(em::detach);
+    }
+}
@@ -0,0 +1,257 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/*
+    회원 저장 기록을 파일 끝에 덧붙이는 write-ahead log.
+    - 레코드 : [payload 길이: int][payload 의 CRC32: int][payload: MemberCodec 형식]
+    - group commit : 전용 writer 스레드가 그동안 쌓인 요청을 한 번에 쓰고 fsync(force) 한 번으로 끝낸다.
+      동시에 저장하는 스레드가 많을수록 fsync 한 번이 더 많은 저장을 처리한다.
+    - fsync 가 끝난 뒤 writer 스레드에서 onDurable 을 호출하고, 그 다음에 append 가 반환된다.
+      따라서 rotate 가 끝난 시점에는 이전 파일의 모든 레코드가 onDurable 까지 처리되어 있다.
+ */
+final class MemberWriteAheadLog implements Closeable {
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int MAX_GROUP_SIZE = 4096;
+
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Consumer<List<Member>> onDurable;
+    private final Thread writer;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    // writer 스레드만 사용한다.
+    private FileChannel channel;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    MemberWriteAheadLog(Path file, Consumer<List<Member>> onDurable) throws IOException {
+        this.channel = open(file);
+        this.onDurable = onDurable;
+        this.writer = new Thread(this::run, "member-wal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // members 가 디스크에 기록되고 onDurable 까지 끝나면 완료된다.
+    CompletableFuture<Void> append(List<Member> members) {
+        return submit(new Request(members, null));
+    }
+
+    // 이후의 레코드를 새 파일에 쓴다. 이전 파일의 레코드가 모두 처리된 뒤에 완료된다.
+    CompletableFuture<Void> rotate(Path next) {
+        return submit(new Request(null, next));
+    }
+
+    // close 와 같은 lock 안에서 확인하고 넣으므로, STOP 뒤에 요청이 들어가지 않는다.
+    private synchronized CompletableFuture<Void> submit(Request request) {
+        if (closed) {
+            request.done.completeExceptionally(closedException());
+        } else if (failure != null) {
+            request.done.completeExceptionally(new IllegalStateException("write-ahead log 기록에 실패했습니다.", failure));
+        } else {
+            queue.add(request);
+        }
+        return request.done;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(Request.STOP);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void run() {
+        List<Request> group = new ArrayList<>();
+        List<Request> pending = new ArrayList<>();
+        while (true) {
+            group.clear();
+            try {
+                group.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(group, MAX_GROUP_SIZE - 1);
+
+            for (int i = 0; i < group.size(); i++) {
+                Request request = group.get(i);
+                if (request.members != null) {
+                    pending.add(request);
+                    continue;
+                }
+                // rotate 나 종료 요청 앞의 레코드를 먼저 기록한다.
+                commit(pending);
+                if (request == Request.STOP) {
+                    // STOP 뒤의 요청은 기록하지 않는다. 기다리는 쪽이 멈추지 않도록 모두 실패시킨다.
+                    List<Request> rest = new ArrayList<>(group.subList(i + 1, group.size()));
+                    queue.drainTo(rest);
+                    for (Request remaining : rest) {
+                        remaining.done.completeExceptionally(closedException());
+                    }
+                    return;
+                }
+                rotateTo(request);
+            }
+            commit(pending);
+        }
+    }
+
+    private static IllegalStateException closedException() {
+        return new IllegalStateException("write-ahead log 가 닫혔습니다.");
+    }
+
+    private void commit(List<Request> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            buffer.clear();
+            for (Request request : pending) {
+                for (int i = 0; i < request.members.size(); i++) {
+                    encode(request.members.get(i).getId(), request.names[i]);
+                }
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            for (Request request : pending) {
+                onDurable.accept(request.members);
+                request.done.complete(null);
+            }
+        } catch (IOException e) {
+            // 어디까지 기록되었는지 알 수 없으므로 이후의 요청도 모두 실패시킨다. (다시 시작하면 복구된다)
+            failure = e;
+            for (Request request : pending) {
+                request.done.completeExceptionally(new IllegalStateException("write-ahead log 기록에 실패했습니다.", e));
+            }
+        } finally {
+            pending.clear();
+        }
+    }
+
+    private void encode(long id, byte[] name) {
+        int payloadSize = MemberCodec.size(name);
+        ensureCapacity(HEADER_SIZE + payloadSize);
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        MemberCodec.write(buffer, id, name);
+
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(start + HEADER_SIZE).limit(start + HEADER_SIZE + payloadSize);
+        crc.reset();
+        crc.update(payload);
+        buffer.putInt(start, payloadSize);
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    private void ensureCapacity(int size) {
+        if (buffer.remaining() >= size) {
+            return;
+        }
+        ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + size));
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+    }
+
+    private void rotateTo(Request request) {
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            FileChannel next = open(request.next);
+            channel.close();
+            channel = next;
+            request.done.complete(null);
+        } catch (IOException e) {
+            failure = e;
+            request.done.completeExceptionally(new IllegalStateException("write-ahead log 교체에 실패했습니다.", e));
+        }
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /*
+        file 의 레코드를 순서대로 읽는다. 마지막 레코드가 쓰다 만 상태(길이 부족, CRC 불일치)이면 거기서 멈추고,
+        정상적으로 읽은 마지막 위치를 반환한다. (호출한 쪽에서 그 뒤를 잘라낸다)
+     */
+    static long replay(Path file, Consumer<Member> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return 0;
+            }
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+            while (data.remaining() >= HEADER_SIZE) {
+                int start = data.position();
+                int payloadSize = data.getInt();
+                int checksum = data.getInt();
+                if (payloadSize < MemberCodec.size(null) || payloadSize > data.remaining()) {
+                    return start;
+                }
+                ByteBuffer payload = data.slice();
+                payload.limit(payloadSize);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    return start;
+                }
+                consumer.accept(MemberCodec.read(payload));
+                data.position(start + HEADER_SIZE + payloadSize);
+            }
+            return data.position();
+        }
+    }
+
+    private static final class Request {
+        static final Request STOP = new Request(null, null);
+
+        final List<Member> members;
+        final byte[][] names;
+        final Path next;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Request(List<Member> members, Path next) {
+            this.members = members;
+            this.next = next;
+            // 이름 인코딩은 writer 스레드가 아니라 호출한 스레드에서 한다.
+            this.names = members == null ? null : new byte[members.size()][];
+            for (int i = 0; members != null && i < members.size(); i++) {
+                names[i] = MemberCodec.encodeName(members.get(i));
+            }
+        }
+    }
+}
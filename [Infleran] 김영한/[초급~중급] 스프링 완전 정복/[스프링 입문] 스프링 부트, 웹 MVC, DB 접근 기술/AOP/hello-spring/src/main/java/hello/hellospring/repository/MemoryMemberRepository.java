@@ -1,21 +1,68 @@
 package hello.hellospring.repository;
 
 import hello.hellospring.domain.Member;
-import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 public class MemoryMemberRepository implements MemberRepository{
-    private static Map<Long, Member> store = new HashMap<>();
-    private static long sequence = 0L;
+    // 여러 스레드에서 동시에 join 해도 안전하도록 concurrent 자료구조와 AtomicLong 을 사용한다.
+    // findPage 가 id 순서로 바로 찾아갈 수 있도록 store 는 id 로 정렬된 skip list 이다. (조회는 O(log n))
+    private final ConcurrentNavigableMap<Long, Member> store = new ConcurrentSkipListMap<>();
+    // name -> id 보조 인덱스. findByName 을 전체 탐색 대신 O(1) 조회로 만든다.
+    private final ConcurrentMap<String, Long> nameIndex = new ConcurrentHashMap<>();
+    // 이름순으로 정렬된 이름 목록. prefix 검색은 prefix 위치부터 순서대로 읽다가 prefix 가 달라지면 멈춘다. (O(log n + limit))
+    private final NavigableSet<String> sortedNames = new ConcurrentSkipListSet<>();
+    private final AtomicLong sequence = new AtomicLong();
 
     @Override
     public Member save(Member member) {
-        member.setId(++sequence);
-        store.put(member.getId(), member);
+        member.setId(nextId());
+        put(member);
         return member;
     }
 
+    protected long nextId() {
+        return sequence.incrementAndGet();
+    }
+
+    // 저장소를 완전히 비울 때 id 를 처음부터 다시 사용한다.
+    protected void resetSequence() {
+        sequence.set(0);
+    }
+
+    // id 가 정해진 회원을 store 와 인덱스에 넣는다.
+    protected void put(Member member) {
+        // store 에 먼저 넣어야 인덱스가 가리키는 id 가 항상 store 에 존재한다.
+        store.put(member.getId(), member);
+        // 같은 이름이 여러 번 저장되면 처음 저장된 회원을 가리킨다.
+        if (member.getName() != null && nameIndex.putIfAbsent(member.getName(), member.getId()) == null) {
+            sortedNames.add(member.getName());
+        }
+    }
+
+    // 파일 등에서 읽어온 회원을 그대로 넣는다. 이후 save 는 지금까지의 가장 큰 id 다음부터 사용한다.
+    protected void restore(Member member) {
+        put(member);
+        sequence.accumulateAndGet(member.getId(), Math::max);
+    }
+
+    @Override
+    public <S extends Member> List<S> saveAll(Iterable<S> members) {
+        List<S> result = new ArrayList<>();
+        for (S member : members) {
+            save(member);
+            result.add(member);
+        }
+        return result;
+    }
+
     @Override
     public Optional<Member> findById(Long id) {
         // Null이 반환될 가능성이 있으면 Optional.ofNullable으로 감싸주어야 함.
@@ -24,9 +71,12 @@ public class MemoryMemberRepository implements MemberRepository{
 
     @Override
     public Optional<Member> findByName(String name) {
-        return store.values().stream()
-                .filter(member -> member.getName().equals(name))
-                .findAny();
+        // ConcurrentHashMap 은 null key 를 허용하지 않는다.
+        if (name == null) {
+            return Optional.empty();
+        }
+        Long id = nameIndex.get(name);
+        return id == null ? Optional.empty() : findById(id);
     }
 
     @Override
@@ -34,7 +84,52 @@ public class MemoryMemberRepository implements MemberRepository{
         return new ArrayList<>(store.values());
     }
 
+    @Override
+    public List<Member> findPage(Long afterId, int limit) {
+        ConcurrentNavigableMap<Long, Member> tail = afterId == null ? store : store.tailMap(afterId, false);
+        return take(tail, limit);
+    }
+
+    @Override
+    public List<Member> findPageBefore(Long beforeId, int limit) {
+        ConcurrentNavigableMap<Long, Member> head = beforeId == null ? store : store.headMap(beforeId, false);
+        List<Member> page = take(head.descendingMap(), limit);
+        Collections.reverse(page);
+        return page;
+    }
+
+    private List<Member> take(ConcurrentNavigableMap<Long, Member> members, int limit) {
+        List<Member> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Member member : members.values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(member);
+        }
+        return page;
+    }
+
+    @Override
+    public List<Member> searchByNamePrefix(String prefix, int limit) {
+        List<Member> result = new ArrayList<>(Math.min(limit, 1024));
+        for (String name : sortedNames.tailSet(prefix)) {
+            if (result.size() == limit || !name.startsWith(prefix)) {
+                break;
+            }
+            findByName(name).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    @Override
+    public Stream<Member> streamAll() {
+        return store.values().stream();
+    }
+
     public void clearStore(){
+        // 인덱스를 먼저 비워야 store 에 없는 id 를 가리키는 순간이 생기지 않는다.
+        sortedNames.clear();
+        nameIndex.clear();
         store.clear();
     }
 }
@@ -1,11 +1,53 @@
 package hello.hellospring.repository;
 
 import hello.hellospring.domain.Member;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
-public interface SpringDataJpaMemberRepository extends JpaRepository<Member, Long>, MemberRepository {
+// streamAll 은 MemberStreamingRepositoryImpl, saveAll 은 MemberBatchRepositoryImpl 의 구현을 사용한다.
+public interface SpringDataJpaMemberRepository extends JpaRepository<Member, Long>, MemberRepository,
+        MemberStreamingRepository, MemberBatchRepository {
+
+    // JpaRepository 와 MemberBatchRepository 에 같은 메소드가 있으므로 다시 선언한다. (구현은 fragment 가 우선)
+    @Override
+    <S extends Member> List<S> saveAll(Iterable<S> members);
+
     @Override
     Optional<Member> findByName(String name);
+
+    // JpaRepository 의 flush 를 사용한다. (MemberRepository 의 default 메소드와 겹치므로 다시 선언)
+    @Override
+    void flush();
+
+    // 반환형이 Page 가 아닌 List 이므로 count 쿼리 없이 limit 만 붙는다.
+    List<Member> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<Member> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+
+    // StartingWith 는 Spring Data 가 %, _ 를 escape 한 뒤 like 'prefix%' 로 바꿔준다.
+    List<Member> findByNameStartingWithOrderByNameAsc(String prefix, Pageable pageable);
+
+    @Override
+    default List<Member> searchByNamePrefix(String prefix, int limit) {
+        return findByNameStartingWithOrderByNameAsc(prefix, PageRequest.of(0, limit));
+    }
+
+    @Override
+    default List<Member> findPage(Long afterId, int limit) {
+        return findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    default List<Member> findPageBefore(Long beforeId, int limit) {
+        List<Member> members = new ArrayList<>(
+                findByIdLessThanOrderByIdDesc(beforeId == null ? Long.MAX_VALUE : beforeId, PageRequest.of(0, limit)));
+        Collections.reverse(members);
+        return members;
+    }
 }
@@ -0,0 +1,55 @@
+package hello.hellospring.service;
+
+import hello.hellospring.domain.Member;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/*
+    MemberService 를 별도의 executor 에서 실행하고 CompletableFuture 로 돌려준다.
+    JDBC / JPA 호출이 막혀 있는 동안 Tomcat 요청 스레드는 반환되어 다른 요청을 받을 수 있다.
+    트랜잭션은 MemberService 가 executor 스레드에서 시작하고 끝낸다.
+ */
+public class AsyncMemberService {
+
+    private final MemberService memberService;
+    private final Executor executor;
+
+    public AsyncMemberService(MemberService memberService, Executor executor) {
+        this.memberService = memberService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Long> join(Member member) {
+        return submit(() -> memberService.join(member));
+    }
+
+    public CompletableFuture<List<Member>> findMembers() {
+        return submit(memberService::findMembers);
+    }
+
+    public CompletableFuture<Optional<Member>> findOne(Long memberId) {
+        return submit(() -> memberService.findOne(memberId));
+    }
+
+    // 빈이 종료될 때 호출된다. (destroy method 추론) 이미 받은 작업은 끝까지 실행한다.
+    public void shutdown() {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            // executor 대기열이 가득 찬 경우. 호출한 쪽에서 예외 대신 실패한 future 로 처리할 수 있게 한다.
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package hello.hellospring.service;
+
+import hello.hellospring.domain.Member;
+
+import java.util.List;
+
+/*
+    회원 목록 한 페이지와 앞 / 뒤 페이지로 가는 cursor(id).
+    cursor 가 null 이면 그 방향으로는 더 이상 페이지가 없다.
+ */
+public class MemberPage {
+
+    private final List<Member> members;
+    private final Long previousCursor;
+    private final Long nextCursor;
+
+    public MemberPage(List<Member> members, Long previousCursor, Long nextCursor) {
+        this.members = members;
+        this.previousCursor = previousCursor;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Member> getMembers() {
+        return members;
+    }
+
+    // /members?before={previousCursor}
+    public Long getPreviousCursor() {
+        return previousCursor;
+    }
+
+    // /members?after={nextCursor}
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -1,19 +1,52 @@
 package hello.hellospring.service;
 
+import hello.hellospring.app.BloomFilter;
+import hello.hellospring.app.DataVersion;
 import hello.hellospring.domain.Member;
 import hello.hellospring.repository.MemberRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Transactional
 public class MemberService {
 
+    private static final int NAME_LOCK_STRIPES = 64;
+
     private final MemberRepository memberRepository;
+    // 가입된 이름의 Bloom filter. null 이면 사용하지 않는다.
+    private final BloomFilter nameFilter;
+    // 회원 목록이 바뀔 때마다 올리는 번호. (렌더링된 회원 목록 캐시의 키) null 이면 사용하지 않는다.
+    private final DataVersion memberVersion;
+    /*
+        같은 이름의 join 은 이름의 hash 로 고른 lock 으로 한 번에 하나씩 실행한다.
+        메모리 저장소는 save 가 바로 보이므로 이것만으로 중복 가입이 막힌다.
+        DB 는 lock 을 푼 뒤에 commit 되므로, 그 사이에 들어온 가입은 member_name_idx(unique) 에서 막힌다.
+     */
+    private final Lock[] nameLocks = new Lock[NAME_LOCK_STRIPES];
 
     public MemberService(MemberRepository memberRepository) {
+        this(memberRepository, null);
+    }
+
+    public MemberService(MemberRepository memberRepository, BloomFilter nameFilter) {
+        this(memberRepository, nameFilter, null);
+    }
+
+    public MemberService(MemberRepository memberRepository, BloomFilter nameFilter, DataVersion memberVersion) {
         this.memberRepository = memberRepository;
+        this.nameFilter = nameFilter;
+        this.memberVersion = memberVersion;
+        for (int i = 0; i < nameLocks.length; i++) {
+            nameLocks[i] = new ReentrantLock();
+        }
     }
 
 
@@ -33,16 +66,68 @@ public class MemberService {
 
         // Optional 형으로 반환하는 것은 그다지 좋지 않으므로 아래와 같이 사용하자.
         // CTRL + ALT + M : 함수 추출하기
-        validateDuplicateMember(member);
-        memberRepository.save(member);
+        Lock lock = nameLock(member.getName());
+        lock.lock();
+        try {
+            validateDuplicateMember(member);
+            memberRepository.save(member);
+            // unique 제약 위반을 commit 이 아니라 여기서 알 수 있도록 insert 를 바로 보낸다.
+            memberRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            // 중복 검사와 저장 사이에 다른 트랜잭션이 같은 이름으로 가입한 경우
+            throw new IllegalStateException("이미 존재하는 회원입니다.", e);
+        } finally {
+            lock.unlock();
+        }
+        // commit 된 뒤에 올라가므로, 그 전에 다른 요청이 렌더링한 목록은 이전 번호로만 캐시된다.
+        if (memberVersion != null) {
+            memberVersion.increment();
+        }
         return member.getId();
     }
 
+    private Lock nameLock(String name) {
+        int hash = Objects.hashCode(name);
+        return nameLocks[(hash ^ (hash >>> 16)) & (NAME_LOCK_STRIPES - 1)];
+    }
+
+    /*
+        filter 가 "없음" 이라고 답하면 조회하지 않는다. (warm-up 이 끝나기 전에는 항상 조회)
+        이름은 확인과 동시에 filter 에 넣고, 같은 이름의 join 은 nameLock 으로 순서가 정해지므로
+        뒤따르는 join 은 반드시 "있을 수도 있음" 을 보고 저장소를 조회한다.
+        가입이 실패하거나 rollback 되어 filter 에 남는 이름은 false positive 가 될 뿐이다.
+     */
     private void validateDuplicateMember(Member member) {
-        memberRepository.findByName(member.getName())
-                .ifPresent(m -> {
-                    throw new IllegalStateException("이미 존재하는 회원입니다.");
-                });
+        boolean filtered = nameFilter != null && member.getName() != null;
+        boolean ready = filtered && nameFilter.isReady();
+        if (filtered && !nameFilter.mightContainAndPut(member.getName()) && ready) {
+            return;
+        }
+        Optional<Member> result = memberRepository.findByName(member.getName());
+        if (ready && result.isEmpty()) {
+            nameFilter.recordFalsePositive();
+        }
+        result.ifPresent(m -> {
+            throw new IllegalStateException("이미 존재하는 회원입니다.");
+        });
+    }
+
+    /*
+        저장소의 모든 회원 이름으로 filter 를 채운다. (애플리케이션 시작 시 한 번)
+        채우는 동안 가입한 회원은 join 에서 직접 넣으므로 빠지지 않는다.
+        다만 이 서비스를 거치지 않고 DB 에 직접 넣은 회원은 filter 가 모르므로, 그런 경우가 있다면 filter 를 끄자.
+     */
+    @Transactional(readOnly = true)
+    public void warmUpNameFilter(){
+        if (nameFilter == null) {
+            return;
+        }
+        try (Stream<Member> members = memberRepository.streamAll()) {
+            members.map(Member::getName)
+                    .filter(Objects::nonNull)
+                    .forEach(nameFilter::put);
+        }
+        nameFilter.markReady();
     }
 
     /*
@@ -52,6 +137,57 @@ public class MemberService {
         return memberRepository.findAll();
     }
 
+    /*
+        회원 목록 한 페이지 (keyset 페이지네이션)
+        - beforeId 가 있으면 그 앞 페이지, 아니면 afterId 다음 페이지를 조회한다.
+        - size + 1 명을 조회해서, 한 명이 더 있으면 그 방향으로 다음 페이지가 있다는 뜻이다. (count 쿼리 없음)
+     */
+    @Transactional(readOnly = true)
+    public MemberPage findMemberPage(Long afterId, Long beforeId, int size){
+        if (beforeId != null) {
+            List<Member> members = memberRepository.findPageBefore(beforeId, size + 1);
+            boolean hasPrevious = members.size() > size;
+            if (hasPrevious) {
+                members = members.subList(1, members.size());
+            }
+            return toPage(members, hasPrevious, true);
+        }
+        List<Member> members = memberRepository.findPage(afterId, size + 1);
+        boolean hasNext = members.size() > size;
+        if (hasNext) {
+            members = members.subList(0, size);
+        }
+        return toPage(members, afterId != null, hasNext);
+    }
+
+    private MemberPage toPage(List<Member> members, boolean hasPrevious, boolean hasNext) {
+        if (members.isEmpty()) {
+            return new MemberPage(members, null, null);
+        }
+        Long previousCursor = hasPrevious ? members.get(0).getId() : null;
+        Long nextCursor = hasNext ? members.get(members.size() - 1).getId() : null;
+        return new MemberPage(members, previousCursor, nextCursor);
+    }
+
+    /*
+        이름이 prefix 로 시작하는 회원을 이름 순으로 최대 limit 명 (자동완성)
+     */
+    @Transactional(readOnly = true)
+    public List<Member> searchMembers(String prefix, int limit){
+        return memberRepository.searchByNamePrefix(prefix, limit);
+    }
+
+    /*
+        전체 회원을 한 명씩 읽어오면서 처리한다. (회원 수와 상관없이 메모리 사용량이 일정)
+        Stream 은 DB 커서를 사용하므로 트랜잭션이 열려있는 이 메소드 안에서만 소비할 수 있다.
+     */
+    @Transactional(readOnly = true)
+    public void streamMembers(Consumer<Stream<Member>> consumer){
+        try (Stream<Member> members = memberRepository.streamAll()) {
+            consumer.accept(members);
+        }
+    }
+
     public Optional<Member> findOne(Long memberId){
         return memberRepository.findById(memberId);
     }
@@ -0,0 +1,65 @@
+package hello.hellospring.app;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void 넣은_값은_항상_있다고_답한다() {
+        //given
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+
+        //when
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("member" + i);
+        }
+
+        //then
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain("member" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void mightContainAndPut_은_넣기_전의_답을_돌려준다() {
+        //given
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        //when
+        boolean first = filter.mightContainAndPut("spring");
+        boolean second = filter.mightContainAndPut("spring");
+
+        //then
+        assertThat(first).isFalse();
+        assertThat(second).isTrue();
+        assertThat(filter.mightContain("spring")).isTrue();
+        assertThat(filter.stats().getNegatives()).isEqualTo(1);
+    }
+
+    @Test
+    void false_positive_비율() {
+        //given
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("member" + i);
+        }
+
+        //when
+        int positives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("new-member" + i)) {
+                filter.recordFalsePositive();
+                positives++;
+            }
+        }
+
+        //then
+        BloomFilterStats stats = filter.stats();
+        assertThat(positives / 100_000.0).isLessThan(0.02);
+        assertThat(stats.getExpectedFpp()).isLessThan(0.02);
+        assertThat(stats.getObservedFpp()).isEqualTo(positives / 100_000.0);
+        assertThat(stats.getNegatives()).isEqualTo(100_000 - positives);
+    }
+}
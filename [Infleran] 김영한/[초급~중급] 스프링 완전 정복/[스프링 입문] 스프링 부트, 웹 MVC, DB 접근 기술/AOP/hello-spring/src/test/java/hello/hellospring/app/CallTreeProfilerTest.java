@@ -0,0 +1,45 @@
+package hello.hellospring.app;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CallTreeProfilerTest {
+
+    @Test
+    void 샘플링된_호출을_합친다() {
+        //given
+        CallTreeProfiler profiler = new CallTreeProfiler(1.0);
+
+        //when
+        for (int i = 0; i < 2; i++) {
+            CallTreeProfiler.Frame controller = profiler.enter("MemberController.list");
+            CallTreeProfiler.Frame service = profiler.enter("MemberService.findMembers");
+            CallTreeProfiler.Frame repository = profiler.enter("MemberRepository.findAll");
+            profiler.exit(repository, 3_000_000);
+            profiler.exit(service, 5_000_000);
+            profiler.exit(controller, 6_000_000);
+        }
+
+        //then
+        assertThat(profiler.dumpCollapsed()).isEqualTo(
+                "MemberController.list 2000\n" +
+                "MemberController.list;MemberService.findMembers 4000\n" +
+                "MemberController.list;MemberService.findMembers;MemberRepository.findAll 6000\n");
+        assertThat(profiler.dumpTree()).contains("  MemberService.findMembers count=2 total=10000us self=4000us");
+    }
+
+    @Test
+    void 샘플링하지_않으면_기록하지_않는다() {
+        CallTreeProfiler profiler = new CallTreeProfiler(0.0);
+
+        CallTreeProfiler.Frame outer = profiler.enter("outer");
+        CallTreeProfiler.Frame inner = profiler.enter("inner");
+        profiler.exit(inner, 1_000_000);
+        profiler.exit(outer, 2_000_000);
+
+        assertThat(outer).isNull();
+        assertThat(inner).isNull();
+        assertThat(profiler.dumpCollapsed()).isEmpty();
+    }
+}
@@ -0,0 +1,37 @@
+package hello.hellospring.app;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void 백분위수() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram("test");
+
+        //when
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1_000);
+        }
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        //then
+        assertThat(snapshot.getCount()).isEqualTo(100_000);
+        assertThat(snapshot.getMax()).isEqualTo(100_000_000L);
+        // 구간 오차는 약 3% 이내
+        assertThat((double) snapshot.getP50()).isCloseTo(50_000_000, within(50_000_000 * 0.04));
+        assertThat((double) snapshot.getP99()).isCloseTo(99_000_000, within(99_000_000 * 0.04));
+        assertThat((double) snapshot.getP999()).isCloseTo(99_900_000, within(99_900_000 * 0.04));
+    }
+
+    @Test
+    void 구간_경계() {
+        for (long value = 0; value < 1_000_000; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertThat(LatencyHistogram.highestEquivalentValue(index)).isGreaterThanOrEqualTo(value);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package hello.hellospring.app;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RenderedViewCacheTest {
+
+    DataVersion version = new DataVersion();
+    RenderedViewCache cache = new RenderedViewCache(version, 100);
+    AtomicInteger renders = new AtomicInteger();
+
+    @AfterEach
+    public void afterEach() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void 버전이_같으면_한_번만_렌더링한다() {
+        RenderedView first = cache.get("members/memberList", "size=20", this::render);
+        RenderedView second = cache.get("members/memberList", "size=20", this::render);
+
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.getBody(), StandardCharsets.UTF_8)).isEqualTo("<p>1</p>");
+        assertThat(first.getEtag()).startsWith("\"0-").endsWith("\"");
+        assertThat(renders.get()).isEqualTo(1);
+
+        // 다른 파라미터는 따로 렌더링한다.
+        cache.get("members/memberList", "size=10", this::render);
+        assertThat(renders.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void 버전이_올라가면_다시_렌더링한다() {
+        RenderedView before = cache.get("members/memberList", "size=20", this::render);
+        version.increment();
+        RenderedView after = cache.get("members/memberList", "size=20", this::render);
+
+        assertThat(renders.get()).isEqualTo(2);
+        assertThat(after.getEtag()).isNotEqualTo(before.getEtag());
+    }
+
+    @Test
+    public void 트랜잭션_안에서는_commit_후에_버전이_올라간다() {
+        TransactionSynchronizationManager.initSynchronization();
+        version.increment();
+        assertThat(version.current()).isEqualTo(0);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(version.current()).isEqualTo(1);
+    }
+
+    private String render() {
+        return "<p>" + renders.incrementAndGet() + "</p>";
+    }
+}
@@ -0,0 +1,135 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachingMemberRepositoryTest {
+
+    // delegate 가 실제로 몇 번 조회되었는지 세기 위해 MemoryMemberRepository 를 상속한다.
+    static class CountingRepository extends MemoryMemberRepository {
+        final AtomicInteger nameLookups = new AtomicInteger();
+
+        @Override
+        public Optional<Member> findByName(String name) {
+            nameLookups.incrementAndGet();
+            return super.findByName(name);
+        }
+    }
+
+    CountingRepository delegate = new CountingRepository();
+    CachingMemberRepository repository = new CachingMemberRepository(delegate, 100, Duration.ofMinutes(1));
+
+    @AfterEach
+    public void afterEach() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        delegate.clearStore();
+    }
+
+    @Test
+    public void 저장한_회원은_delegate_조회없이_찾는다() {
+        Member member = createMember("spring");
+        repository.save(member);
+
+        assertThat(repository.findById(member.getId())).usingFieldByFieldValueComparator().contains(member);
+        assertThat(repository.findByName("spring")).usingFieldByFieldValueComparator().contains(member);
+        assertThat(delegate.nameLookups.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void 조회할_때마다_복사본을_돌려준다() {
+        Member member = createMember("spring");
+        repository.save(member);
+
+        Member found = repository.findByName("spring").get();
+        found.setName("changed");
+        member.setName("changed");
+
+        // 저장한 회원이나 조회한 회원을 고쳐도 캐시와 다른 호출자에게는 보이지 않는다.
+        assertThat(repository.findByName("spring").get()).isNotSameAs(found);
+        assertThat(repository.findById(member.getId()).get().getName()).isEqualTo("spring");
+    }
+
+    @Test
+    public void 없는_회원은_캐시하지_않는다() {
+        assertThat(repository.findByName("spring")).isEmpty();
+
+        // 캐시를 거치지 않고 원본에 바로 가입한 경우에도 다음 조회에서 찾아야 한다.
+        Member member = createMember("spring");
+        delegate.save(member);
+
+        assertThat(repository.findByName("spring")).usingFieldByFieldValueComparator().contains(member);
+        assertThat(repository.findByName("spring")).usingFieldByFieldValueComparator().contains(member);
+        assertThat(delegate.nameLookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void rollback_된_회원은_캐시에_남지_않는다() {
+        TransactionSynchronizationManager.initSynchronization();
+        Member member = createMember("spring");
+        repository.save(member);
+        // 같은 트랜잭션 안의 조회는 캐시를 거치지 않는다.
+        assertThat(repository.findByName("spring")).containsSame(member);
+
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        delegate.clearStore();
+
+        assertThat(repository.findByName("spring")).isEmpty();
+        assertThat(repository.findById(member.getId())).isEmpty();
+    }
+
+    @Test
+    public void commit_된_후에_캐시에_넣는다() {
+        TransactionSynchronizationManager.initSynchronization();
+        Member member = createMember("spring");
+        repository.save(member);
+        assertThat(repository.findByName("spring")).containsSame(member);
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        // commit 전 조회 1번만 delegate 로 가고, commit 후에는 캐시에서 찾는다.
+        assertThat(repository.findByName("spring")).usingFieldByFieldValueComparator().contains(member);
+        assertThat(delegate.nameLookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void 최대_개수를_넘으면_제거한다() {
+        CachingMemberRepository small = new CachingMemberRepository(delegate, 10, Duration.ofMinutes(1));
+        for (int i = 0; i < 100; i++) {
+            small.save(createMember("spring" + i));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertThat(small.findByName("spring" + i)).isPresent();
+        }
+
+        MemberCacheStats byName = small.stats().get(1);
+        assertThat(byName.getSize()).isLessThanOrEqualTo(10);
+        assertThat(byName.getEvictionCount()).isGreaterThan(0);
+        assertThat(byName.getHitCount() + byName.getMissCount()).isEqualTo(100);
+    }
+
+    private void completeTransaction(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private Member createMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        return member;
+    }
+}
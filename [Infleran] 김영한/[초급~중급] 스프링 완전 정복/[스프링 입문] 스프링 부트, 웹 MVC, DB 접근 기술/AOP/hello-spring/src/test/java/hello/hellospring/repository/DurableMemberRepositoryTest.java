@@ -0,0 +1,145 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DurableMemberRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void 다시_열면_저장한_회원을_복구한다() throws Exception {
+        Member spring1;
+        try (DurableMemberRepository repository = new DurableMemberRepository(directory)) {
+            spring1 = repository.save(createMember("spring1"));
+            repository.saveAll(List.of(createMember("spring2"), createMember("spring3")));
+        }
+
+        try (DurableMemberRepository repository = new DurableMemberRepository(directory)) {
+            assertThat(repository.findAll()).extracting(Member::getName).containsExactly("spring1", "spring2", "spring3");
+            assertThat(repository.findByName("spring1").get().getId()).isEqualTo(spring1.getId());
+            // 복구한 뒤에도 id 는 이어서 증가한다.
+            assertThat(repository.save(createMember("spring4")).getId()).isEqualTo(4L);
+        }
+    }
+
+    @Test
+    public void 스냅샷과_이후의_log_를_합쳐서_복구한다() throws Exception {
+        try (DurableMemberRepository repository = new DurableMemberRepository(directory, 10)) {
+            for (int i = 1; i <= 25; i++) {
+                repository.save(createMember("spring" + i));
+            }
+            repository.snapshot();
+            repository.save(createMember("spring26"));
+        }
+        // 이전 세대 파일은 지워지고 스냅샷 하나와 log 하나만 남는다.
+        assertThat(fileNames()).hasSize(2).anyMatch(name -> name.startsWith("snapshot-"));
+
+        try (DurableMemberRepository repository = new DurableMemberRepository(directory, 10)) {
+            assertThat(repository.findAll()).hasSize(26);
+            assertThat(repository.findByName("spring26")).isPresent();
+        }
+    }
+
+    @Test
+    public void 쓰다_만_마지막_레코드는_잘라낸다() throws Exception {
+        try (DurableMemberRepository repository = new DurableMemberRepository(directory)) {
+            repository.save(createMember("spring1"));
+            repository.save(createMember("spring2"));
+        }
+        Path wal = directory.resolve(fileNames().get(0));
+        long size = Files.size(wal);
+        // 마지막 레코드를 쓰는 도중에 종료된 상황
+        try (FileChannel channel = FileChannel.open(wal, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (DurableMemberRepository repository = new DurableMemberRepository(directory)) {
+            assertThat(repository.findAll()).extracting(Member::getName).containsExactly("spring1");
+            repository.save(createMember("spring3"));
+        }
+        try (DurableMemberRepository repository = new DurableMemberRepository(directory)) {
+            assertThat(repository.findAll()).extracting(Member::getName).containsExactly("spring1", "spring3");
+        }
+    }
+
+    @Test
+    public void clearStore_후에는_다시_열어도_비어_있다() throws Exception {
+        try (DurableMemberRepository repository = new DurableMemberRepository(directory, 10)) {
+            for (int i = 1; i <= 15; i++) {
+                repository.save(createMember("spring" + i));
+            }
+            repository.clearStore();
+            assertThat(repository.findAll()).isEmpty();
+            assertThat(repository.findByName("spring1")).isEmpty();
+            // id 는 처음부터 다시 사용한다.
+            assertThat(repository.save(createMember("spring")).getId()).isEqualTo(1L);
+        }
+        // 이전 세대 파일은 지워지고 빈 스냅샷과 새 log 만 남는다.
+        assertThat(fileNames()).hasSize(2).anyMatch(name -> name.startsWith("snapshot-"));
+
+        try (DurableMemberRepository repository = new DurableMemberRepository(directory, 10)) {
+            assertThat(repository.findAll()).extracting(Member::getName).containsExactly("spring");
+            assertThat(repository.getSnapshotFailures()).isZero();
+        }
+    }
+
+    @Test
+    public void 저장_중에_닫아도_모든_save_가_끝난다() throws Exception {
+        DurableMemberRepository repository = new DurableMemberRepository(directory);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> saves = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String name = "spring" + i;
+            saves.add(executor.submit(() -> repository.save(createMember(name))));
+        }
+        repository.close();
+
+        // 닫히기 전에 들어온 save 는 저장되고, 그 뒤의 save 는 예외로 끝난다. 멈춰 있는 save 는 없다.
+        int saved = 0;
+        for (Future<?> save : saves) {
+            try {
+                save.get(10, TimeUnit.SECONDS);
+                saved++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(IllegalStateException.class)
+                        .hasMessage("write-ahead log 가 닫혔습니다.");
+            }
+        }
+        executor.shutdown();
+
+        try (DurableMemberRepository reopened = new DurableMemberRepository(directory)) {
+            assertThat(reopened.findAll()).hasSize(saved);
+        }
+    }
+
+    private List<String> fileNames() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private Member createMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        return member;
+    }
+}
@@ -0,0 +1,47 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityRowMapperTest {
+
+    EmbeddedDatabase dataSource = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @AfterEach
+    void afterEach() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void 컬럼_순서와_상관없이_label_로_대응한다() {
+        EntityRowMapper<Member> mapper = EntityRowMapper.forType(Member.class);
+
+        // 컬럼 순서가 다르고, 프로퍼티가 없는 컬럼(extra)이 섞여 있어도 된다.
+        List<Member> members = jdbcTemplate.query(
+                "select 'spring' as NAME, 'x' as extra, 7 as Id union all select null, 'y', null", mapper);
+
+        assertThat(members).hasSize(2);
+        assertThat(members.get(0).getId()).isEqualTo(7L);
+        assertThat(members.get(0).getName()).isEqualTo("spring");
+        assertThat(members.get(1).getId()).isNull();
+        assertThat(members.get(1).getName()).isNull();
+    }
+
+    @Test
+    void 같은_타입이면_같은_mapper_를_사용한다() {
+        assertThat(EntityRowMapper.forType(Member.class)).isSameAs(EntityRowMapper.forType(Member.class));
+    }
+}
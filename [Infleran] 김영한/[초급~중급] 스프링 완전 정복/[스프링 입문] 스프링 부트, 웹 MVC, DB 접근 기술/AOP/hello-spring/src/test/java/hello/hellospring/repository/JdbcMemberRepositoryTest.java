@@ -0,0 +1,152 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcMemberRepositoryTest {
+
+    EmbeddedDatabase dataSource;
+
+    @BeforeEach
+    void beforeEach() {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        // sql/ddl.sql 과 같은 스키마
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create sequence member_seq start with 1 increment by 50");
+        jdbcTemplate.execute(
+                "create table member(id bigint default next value for member_seq, name varchar(255), primary key (id))");
+        jdbcTemplate.execute("create unique index member_name_idx on member(name)");
+    }
+
+    @AfterEach
+    void afterEach() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void jdbc_saveAll() {
+        saveAll(new JdbcMemberRepository(dataSource));
+    }
+
+    @Test
+    void jdbcTemplate_saveAll() {
+        saveAll(new JdbcTemplateMemberRepository(dataSource));
+    }
+
+    @Test
+    void jdbc_streamAll() {
+        streamAll(new JdbcMemberRepository(dataSource));
+    }
+
+    @Test
+    void jdbcTemplate_streamAll() {
+        JdbcTemplateMemberRepository repository = new JdbcTemplateMemberRepository(dataSource);
+        repository.setFetchSize(10);
+        streamAll(repository);
+    }
+
+    @Test
+    void jdbc_findPage() {
+        findPage(new JdbcMemberRepository(dataSource));
+    }
+
+    @Test
+    void jdbcTemplate_findPage() {
+        findPage(new JdbcTemplateMemberRepository(dataSource));
+    }
+
+    @Test
+    void jdbc_searchByNamePrefix() {
+        searchByNamePrefix(new JdbcMemberRepository(dataSource));
+    }
+
+    @Test
+    void jdbcTemplate_searchByNamePrefix() {
+        searchByNamePrefix(new JdbcTemplateMemberRepository(dataSource));
+    }
+
+    private void searchByNamePrefix(MemberRepository repository) {
+        repository.saveAll(createMembers(25));
+        List<Member> wildcards = new ArrayList<>();
+        for (String name : new String[]{"100%", "1000", "a_b", "axb"}) {
+            Member member = new Member();
+            member.setName(name);
+            wildcards.add(member);
+        }
+        repository.saveAll(wildcards);
+
+        assertThat(repository.searchByNamePrefix("member1", 3)).extracting(Member::getName)
+                .containsExactly("member1", "member10", "member11");
+        // 입력한 %, _ 는 문자 그대로 비교한다.
+        assertThat(repository.searchByNamePrefix("100%", 10)).extracting(Member::getName).containsExactly("100%");
+        assertThat(repository.searchByNamePrefix("a_", 10)).extracting(Member::getName).containsExactly("a_b");
+    }
+
+    private void findPage(MemberRepository repository) {
+        repository.saveAll(createMembers(25));
+
+        List<Member> first = repository.findPage(null, 10);
+        List<Member> second = repository.findPage(first.get(9).getId(), 10);
+        List<Member> last = repository.findPage(second.get(9).getId(), 10);
+        List<Member> previous = repository.findPageBefore(last.get(0).getId(), 10);
+
+        assertThat(first).extracting(Member::getName).startsWith("member0", "member1");
+        assertThat(second).extracting(Member::getName).startsWith("member10");
+        assertThat(last).extracting(Member::getName).containsExactly("member20", "member21", "member22", "member23", "member24");
+        assertThat(previous).extracting(Member::getId).containsExactlyElementsOf(
+                second.stream().map(Member::getId).collect(Collectors.toList()));
+        assertThat(repository.findPageBefore(null, 3)).extracting(Member::getName)
+                .containsExactly("member22", "member23", "member24");
+    }
+
+    private void streamAll(MemberRepository repository) {
+        repository.saveAll(createMembers(100));
+
+        try (Stream<Member> members = repository.streamAll()) {
+            assertThat(members.map(Member::getName)).hasSize(100).contains("member0", "member99");
+        }
+    }
+
+    private List<Member> createMembers(int count) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Member member = new Member();
+            member.setName("member" + i);
+            members.add(member);
+        }
+        return members;
+    }
+
+    private void saveAll(MemberRepository repository) {
+        //given
+        // batch 크기(1000)로 나누어 떨어지지 않는 개수
+        List<Member> members = createMembers(2500);
+
+        //when
+        List<Member> saved = repository.saveAll(members);
+
+        //then
+        assertThat(saved).hasSize(2500);
+        assertThat(saved.stream().map(Member::getId).distinct().collect(Collectors.toList())).hasSize(2500);
+        for (Member member : saved) {
+            assertThat(repository.findById(member.getId()).get().getName()).isEqualTo(member.getName());
+        }
+        assertThat(repository.findAll()).hasSize(2500);
+    }
+}
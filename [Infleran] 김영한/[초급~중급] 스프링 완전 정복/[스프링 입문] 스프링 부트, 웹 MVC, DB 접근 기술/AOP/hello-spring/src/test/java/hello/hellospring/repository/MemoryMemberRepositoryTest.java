@@ -6,6 +6,12 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class MemoryMemberRepositoryTest {
     // 모든 Test의 실행 순서는 랜덤이다
@@ -63,4 +69,75 @@ public class MemoryMemberRepositoryTest {
 
         Assertions.assertThat(result.size()).isEqualTo(2);
     }
+
+    @Test
+    public void findPage(){
+        for (int i = 1; i <= 25; i++) {
+            Member member = new Member();
+            member.setName("spring" + i);
+            repository.save(member);
+        }
+        long firstId = repository.findByName("spring1").get().getId();
+
+        List<Member> first = repository.findPage(null, 10);
+        List<Member> second = repository.findPage(first.get(9).getId(), 10);
+        List<Member> last = repository.findPage(second.get(9).getId(), 10);
+        List<Member> previous = repository.findPageBefore(last.get(0).getId(), 10);
+
+        Assertions.assertThat(first).extracting(Member::getId).containsExactly(
+                firstId, firstId + 1, firstId + 2, firstId + 3, firstId + 4,
+                firstId + 5, firstId + 6, firstId + 7, firstId + 8, firstId + 9);
+        Assertions.assertThat(second.get(0).getId()).isEqualTo(firstId + 10);
+        Assertions.assertThat(last).hasSize(5);
+        Assertions.assertThat(previous).containsExactlyElementsOf(second);
+    }
+
+    @Test
+    public void searchByNamePrefix(){
+        for (String name : new String[]{"spring", "springboot", "spa", "summer", "spring2"}) {
+            Member member = new Member();
+            member.setName(name);
+            repository.save(member);
+        }
+
+        Assertions.assertThat(repository.searchByNamePrefix("spr", 10)).extracting(Member::getName)
+                .containsExactly("spring", "spring2", "springboot");
+        Assertions.assertThat(repository.searchByNamePrefix("sp", 2)).extracting(Member::getName)
+                .containsExactly("spa", "spring");
+        Assertions.assertThat(repository.searchByNamePrefix("x", 10)).isEmpty();
+    }
+
+    @Test
+    public void concurrentSave() throws InterruptedException {
+        int threads = 8;
+        int perThread = 10_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            int threadNo = t;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    Member member = new Member();
+                    member.setName("member-" + threadNo + "-" + i);
+                    ids.add(repository.save(member).getId());
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // 중복된 id 가 없고, 저장한 회원이 하나도 유실되지 않아야 한다.
+        int total = threads * perThread;
+        Assertions.assertThat(ids).hasSize(total);
+        Assertions.assertThat(repository.findAll()).hasSize(total);
+        for (int t = 0; t < threads; t++) {
+            Member result = repository.findByName("member-" + t + "-" + (perThread - 1)).get();
+            Assertions.assertThat(repository.findById(result.getId())).contains(result);
+        }
+    }
 }
@@ -0,0 +1,52 @@
+package hello.hellospring.repository;
+
+import hello.hellospring.domain.Member;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class SpringDataJpaMemberRepositoryTest {
+
+    @Autowired SpringDataJpaMemberRepository repository;
+    @Autowired EntityManagerFactory emf;
+    @Autowired EntityManager em;
+
+    @Test
+    void saveAll_은_insert_를_batch_로_보낸다() {
+        //given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Member member = new Member();
+            member.setName("batch-member" + i);
+            members.add(member);
+        }
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        //when
+        List<Member> saved = repository.saveAll(members);
+
+        //then
+        // MemberBatchRepositoryImpl 이 batch 마다 flush / clear 했으므로 영속성 컨텍스트에 남아있지 않다.
+        assertThat(em.contains(saved.get(0))).isFalse();
+        assertThat(saved.stream().map(Member::getId).distinct().collect(Collectors.toList())).hasSize(120);
+        // 50개씩 batch 3번 + 시퀀스 조회 3번. insert 를 하나씩 보냈다면 120번 이상이다.
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+        assertThat(repository.findByName("batch-member119").get().getId()).isEqualTo(saved.get(119).getId());
+        statistics.setStatisticsEnabled(false);
+    }
+}
@@ -0,0 +1,90 @@
+package hello.hellospring.service;
+
+import hello.hellospring.app.ServiceExecutors;
+import hello.hellospring.domain.Member;
+import hello.hellospring.repository.MemoryMemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncMemberServiceTest {
+
+    MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+    AsyncMemberService asyncMemberService;
+
+    @AfterEach
+    public void afterEach(){
+        asyncMemberService.shutdown();
+        memberRepository.clearStore();
+    }
+
+    @Test
+    void 회원가입은_executor_스레드에서_실행된다() throws Exception {
+        //given
+        asyncMemberService = new AsyncMemberService(new MemberService(memberRepository),
+                ServiceExecutors.create("bounded", "test-async-", 2, 10));
+        AtomicReference<String> thread = new AtomicReference<>();
+        // 중복 검사에서 getName 을 호출한 스레드를 기록한다.
+        Member member = new Member() {
+            @Override
+            public String getName() {
+                thread.compareAndSet(null, Thread.currentThread().getName());
+                return "spring";
+            }
+        };
+
+        //when
+        Long id = asyncMemberService.join(member).get();
+
+        //then
+        assertThat(asyncMemberService.findOne(id).get()).containsSame(member);
+        assertThat(asyncMemberService.findMembers().get()).hasSize(1);
+        assertThat(thread.get()).startsWith("test-async-");
+    }
+
+    @Test
+    void 대기열이_가득_차면_실패한_future_를_반환한다() throws Exception {
+        //given
+        asyncMemberService = new AsyncMemberService(new MemberService(memberRepository),
+                ServiceExecutors.create("bounded", "test-async-", 1, 1));
+        CountDownLatch release = new CountDownLatch(1);
+
+        //when
+        // 스레드 1개와 대기열 1칸을 채운다.
+        CompletableFuture<Long> first = asyncMemberService.join(blockingMember("first", release));
+        CompletableFuture<Long> second = asyncMemberService.join(blockingMember("second", release));
+        CompletableFuture<Long> third = asyncMemberService.join(blockingMember("third", release));
+
+        //then
+        assertThat(third).isCompletedExceptionally();
+        assertThatThrownBy(third::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        release.countDown();
+        assertThat(first.get()).isNotNull();
+        assertThat(second.get()).isNotNull();
+    }
+
+    // getName 이 불릴 때(중복 검사) latch 가 열릴 때까지 executor 스레드를 붙잡는다.
+    private Member blockingMember(String name, CountDownLatch release) {
+        return new Member() {
+            @Override
+            public String getName() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return name;
+            }
+        };
+    }
+}
@@ -1,11 +1,23 @@
 package hello.hellospring.service;
 
+import hello.hellospring.app.BloomFilter;
+import hello.hellospring.app.DataVersion;
 import hello.hellospring.domain.Member;
 import hello.hellospring.repository.MemoryMemberRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -66,6 +78,161 @@ class MemberServiceTest {
         //then
     }
 
+    @Test
+    public void 같은_이름으로_동시에_가입하면_한_명만_저장된다() throws Exception {
+        //given
+        // 두 스레드가 모두 중복 검사에 들어올 때까지 잠시 기다리는 저장소. lock 이 없다면 둘 다 "없음" 을 보고 저장한다.
+        CountDownLatch bothChecking = new CountDownLatch(2);
+        MemoryMemberRepository slowRepository = new MemoryMemberRepository() {
+            @Override
+            public Optional<Member> findByName(String name) {
+                bothChecking.countDown();
+                try {
+                    bothChecking.await(200, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findByName(name);
+            }
+        };
+        MemberService concurrentService = new MemberService(slowRepository);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        //when
+        Future<Long> first = executor.submit(() -> concurrentService.join(createMember("spring")));
+        Future<Long> second = executor.submit(() -> concurrentService.join(createMember("spring")));
+        int joined = 0;
+        int rejected = 0;
+        for (Future<Long> result : List.of(first, second)) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                joined++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+                rejected++;
+            }
+        }
+        executor.shutdown();
+
+        //then
+        assertThat(joined).isEqualTo(1);
+        assertThat(rejected).isEqualTo(1);
+        assertThat(slowRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    public void filter_를_사용해도_같은_이름으로_동시에_가입하면_한_명만_저장된다() throws Exception {
+        //given
+        BloomFilter nameFilter = new BloomFilter(1000, 0.01);
+        MemberService filteredService = new MemberService(memberRepository, nameFilter);
+        filteredService.warmUpNameFilter();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        //when
+        for (int round = 0; round < 50; round++) {
+            String name = "spring" + round;
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return filteredService.join(createMember(name));
+                }));
+            }
+            start.countDown();
+            int joined = 0;
+            for (Future<Long> result : results) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                    joined++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+                }
+            }
+
+            //then
+            assertThat(joined).isEqualTo(1);
+        }
+        executor.shutdown();
+        assertThat(memberRepository.findAll()).hasSize(50);
+    }
+
+    @Test
+    public void 이름_filter_를_사용한_중복_회원_예외() {
+        //given
+        Member existing = new Member();
+        existing.setName("spring");
+        memberRepository.save(existing);
+
+        BloomFilter nameFilter = new BloomFilter(1000, 0.01);
+        MemberService filteredService = new MemberService(memberRepository, nameFilter);
+        filteredService.warmUpNameFilter();
+
+        Member member1 = new Member();
+        member1.setName("hello");
+        Member member2 = new Member();
+        member2.setName("spring");
+
+        //when
+        filteredService.join(member1);
+        assertThrows(IllegalStateException.class, () -> filteredService.join(member2));
+
+        //then
+        // "hello" 는 filter 에서 걸러져 조회하지 않고, "spring" 만 조회했다.
+        assertThat(nameFilter.stats().getNegatives()).isEqualTo(1);
+        assertThat(nameFilter.mightContain("hello")).isTrue();
+    }
+
+    @Test
+    void 회원가입하면_목록_버전이_올라간다() {
+        //given
+        DataVersion memberVersion = new DataVersion();
+        MemberService versionedService = new MemberService(memberRepository, null, memberVersion);
+        Member member1 = new Member();
+        member1.setName("spring");
+        Member member2 = new Member();
+        member2.setName("spring");
+
+        //when
+        versionedService.join(member1);
+        assertThrows(IllegalStateException.class, () -> versionedService.join(member2));
+
+        //then
+        // 중복으로 실패한 가입은 목록을 바꾸지 않으므로 버전도 그대로다.
+        assertThat(memberVersion.current()).isEqualTo(1);
+    }
+
+    @Test
+    void 회원목록_페이지() {
+        //given
+        for (int i = 1; i <= 5; i++) {
+            Member member = new Member();
+            member.setName("spring" + i);
+            memberService.join(member);
+        }
+
+        //when
+        MemberPage first = memberService.findMemberPage(null, null, 2);
+        MemberPage second = memberService.findMemberPage(first.getNextCursor(), null, 2);
+        MemberPage last = memberService.findMemberPage(second.getNextCursor(), null, 2);
+        MemberPage back = memberService.findMemberPage(null, second.getPreviousCursor(), 2);
+
+        //then
+        assertThat(first.getPreviousCursor()).isNull();
+        assertThat(second.getMembers()).extracting(Member::getName).containsExactly("spring3", "spring4");
+        assertThat(last.getMembers()).extracting(Member::getName).containsExactly("spring5");
+        assertThat(last.getNextCursor()).isNull();
+        assertThat(back.getMembers()).extracting(Member::getName).containsExactly("spring1", "spring2");
+        assertThat(back.getPreviousCursor()).isNull();
+        assertThat(back.getNextCursor()).isEqualTo(first.getNextCursor());
+    }
+
+    private Member createMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        return member;
+    }
+
     @Test
     void findMembers() {
     }
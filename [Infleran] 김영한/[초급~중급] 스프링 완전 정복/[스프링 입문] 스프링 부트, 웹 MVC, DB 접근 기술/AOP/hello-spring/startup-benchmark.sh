@@ -0,0 +1,46 @@
+#!/bin/bash
+# HelloSpringApplication 의 시작 시간(프로세스 시작 ~ 첫 HTTP 200)을 모드별로 비교한다.
+#   default  : 기본
+#   lazy     : --spring.profiles.active=lazy (빈을 처음 사용할 때 생성)
+#   cds      : AppCDS 아카이브 사용 (./gradlew cdsArchive)
+#   cds-lazy : 둘 다
+# 첫 요청은 DB 까지 사용하는 /members 로 보내므로, lazy 모드에서 미뤄둔 초기화 시간도 포함된다.
+# 사용법: ./startup-benchmark.sh [반복 횟수]
+set -e
+cd "$(dirname "$0")"
+
+RUNS=${1:-10}
+URL=http://localhost:8080/members
+JVM_OPTS=${JVM_OPTS:--Xms512m -Xmx512m}
+APP_ARGS="--spring.datasource.url=jdbc:h2:mem:startup --spring.jpa.hibernate.ddl-auto=create --spring.jpa.show-sql=false"
+
+./gradlew -q cdsArchive
+CLASSPATH=$(cat build/cds/classpath.txt)
+
+measure() {
+  local jvm_flags=$1 app_flags=$2
+  local start=$(date +%s%N)
+  java $JVM_OPTS $jvm_flags -cp "$CLASSPATH" hello.hellospring.HelloSpringApplication $APP_ARGS $app_flags > /dev/null 2>&1 &
+  local pid=$!
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' $URL)" = "200" ]; do sleep 0.02; done
+  local end=$(date +%s%N)
+  kill $pid
+  wait $pid 2>/dev/null || true
+  echo $(( (end - start) / 1000000 ))
+}
+
+run() {
+  local mode=$1 jvm_flags=$2 app_flags=$3
+  local times=()
+  for i in $(seq 1 "$RUNS"); do
+    times+=("$(measure "$jvm_flags" "$app_flags")")
+  done
+  local sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+  printf '%-9s median=%5d ms  min=%5d ms  max=%5d ms\n' "$mode" "${sorted[$((RUNS / 2))]}" "${sorted[0]}" "${sorted[$((RUNS - 1))]}"
+}
+
+CDS="-XX:SharedArchiveFile=build/cds/app.jsa -Xshare:on"
+run default  "-Xshare:auto" ""
+run lazy     "-Xshare:auto" "--spring.profiles.active=lazy"
+run cds      "$CDS" ""
+run cds-lazy "$CDS" "--spring.profiles.active=lazy"
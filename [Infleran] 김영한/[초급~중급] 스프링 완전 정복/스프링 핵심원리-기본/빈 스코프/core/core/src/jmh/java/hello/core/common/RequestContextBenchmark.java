@@ -0,0 +1,85 @@
+package hello.core.common;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.RequestContextFilter;
+
+import javax.servlet.FilterChain;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/*
+    /log-demo 요청 하나가 로깅에 쓰는 비용. (컨트롤러에서 1번, 서비스에서 1번 log)
+    - scopedProxy : 이전 방식. Spring 의 RequestContextFilter 가 요청을 스레드에 두고,
+                    MyLogger 프록시가 호출마다 request scope 에서 빈을 찾는다. (요청마다 빈 생성, UUID, 소멸 콜백)
+    - context     : RequestIdFilter 가 RequestContext 를 스레드에 두고, 싱글톤 RequestLogger 가 모아서 요청이 끝날 때 AsyncLogWriter 로 넘긴다.
+    두 방식 모두 요청마다 MockHttpServletRequest 를 새로 만들고, 출력은 버리므로 콘솔 I/O 는 빠진 값이다.
+    (context 는 AsyncLogWriter 버퍼가 가득 차면 DROP 하므로, 출력 스레드가 따라오지 못하는 비용도 빠진다)
+    부하를 주려면 -t 4 처럼 스레드 수를 늘린다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestContextBenchmark {
+
+    AnnotationConfigWebApplicationContext context;
+    MyLogger myLogger;
+    OncePerRequestFilter springRequestContextFilter = new RequestContextFilter();
+    AsyncLogWriter writer;
+    RequestLogger requestLogger;
+    RequestIdFilter requestIdFilter;
+    PrintStream originalOut;
+
+    FilterChain scopedProxyChain = (request, response) -> {
+        myLogger.setRequestURL(((MockHttpServletRequest) request).getRequestURL().toString());
+        myLogger.log("controller test");
+        myLogger.log("service id = testId");
+    };
+
+    FilterChain contextChain = (request, response) -> {
+        requestLogger.log("controller test");
+        requestLogger.log("service id = testId");
+    };
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(MyLogger.class);
+        context.refresh();
+        myLogger = context.getBean(MyLogger.class);
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        writer = new AsyncLogWriter(1024, LogOverflowPolicy.DROP, System.out);
+        writer.start();
+        requestLogger = new RequestLogger(writer);
+        requestIdFilter = new RequestIdFilter(requestLogger);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        writer.close();
+        System.setOut(originalOut);
+        context.close();
+    }
+
+    @Benchmark
+    public void scopedProxy() throws Exception {
+        springRequestContextFilter.doFilter(new MockHttpServletRequest("GET", "/log-demo"), new MockHttpServletResponse(), scopedProxyChain);
+    }
+
+    @Benchmark
+    public void context() throws Exception {
+        requestIdFilter.doFilter(new MockHttpServletRequest("GET", "/log-demo"), new MockHttpServletResponse(), contextChain);
+    }
+}
@@ -0,0 +1,85 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+    주문 10,000 건의 할인 금액을 계산하는 비용. (@OperationsPerInvocation 으로 나누므로 결과는 건당 ns)
+    - policy      : 지금까지의 방식. DiscountPolicy 하나(RateDiscountPolicy)를 인터페이스로 호출하고, 등급은 클래스 안의 if 로 확인한다.
+    - policyChain : 같은 인터페이스로 규칙을 조합한 경우. (정률 + 정액 정책을 차례로 호출하고 상한을 적용)
+    - engine      : DiscountEngine.discount(member, price) (policyChain 과 같은 규칙)
+    - engineBulk  : DiscountEngine.discount(prices, grades)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiscountEngineBenchmark {
+
+    private static final int ORDERS = 10_000;
+    private static final int CAP = 5000;
+
+    Member[] members = new Member[ORDERS];
+    Grade[] grades = new Grade[ORDERS];
+    int[] prices = new int[ORDERS];
+
+    DiscountPolicy policy = new RateDiscountPolicy();
+    DiscountPolicy[] chain = {new RateDiscountPolicy(), new FixDiscountPolicy()};
+    DiscountEngine engine = new DiscountEngine(List.of(
+            DiscountRule.rate(Grade.VIP, 10),
+            DiscountRule.fix(Grade.VIP, 1000),
+            DiscountRule.cap(Grade.VIP, CAP)), Stacking.SUM);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < ORDERS; i++) {
+            Grade grade = random.nextInt(4) == 0 ? Grade.VIP : Grade.BASIC;
+            members[i] = new Member((long) i, "member" + i, grade);
+            grades[i] = grade;
+            prices[i] = 1000 + random.nextInt(100_000);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void policy(Blackhole blackhole) {
+        for (int i = 0; i < ORDERS; i++) {
+            blackhole.consume(policy.discount(members[i], prices[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void policyChain(Blackhole blackhole) {
+        for (int i = 0; i < ORDERS; i++) {
+            int discount = 0;
+            for (DiscountPolicy p : chain) {
+                discount += p.discount(members[i], prices[i]);
+            }
+            blackhole.consume(members[i].getGrade() == Grade.VIP ? Math.min(discount, CAP) : discount);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void engine(Blackhole blackhole) {
+        for (int i = 0; i < ORDERS; i++) {
+            blackhole.consume(engine.discount(members[i], prices[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public int[] engineBulk() {
+        return engine.discount(prices, grades);
+    }
+}
@@ -0,0 +1,88 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+    MemoryMemberRepository 의 저장소 비교. (회원 members 명)
+    - hashMap : 이전 구현 HashMap<Long, Member> (조회할 때마다 long -> Long 박싱)
+    - longMap : LongMemberMap (long[] + Member[] open addressing, optimistic read)
+    lookup 은 임의의 id 1024 개를 조회한 건당 ns 이다. 여러 스레드로 읽으려면 -t 4 처럼 실행한다.
+    항목당 heap 은 Trial 시작할 때 저장소를 채우기 전후의 사용 heap 차이를 members 로 나눠 출력한다.
+    (Member 객체와 그 id(Long)는 채우기 전에 만들어 두므로, 저장소 자체의 비용만 잰다)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class MemberStoreBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"1000000", "10000000"})
+    int members;
+
+    @Param({"hashMap", "longMap"})
+    String store;
+
+    Map<Long, Member> hashMap;
+    LongMemberMap longMap;
+    long[] ids = new long[LOOKUPS];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Member[] all = new Member[members];
+        for (int i = 0; i < members; i++) {
+            all[i] = new Member((long) i + 1, "member", i % 4 == 0 ? Grade.VIP : Grade.BASIC);
+        }
+
+        long before = usedHeap();
+        if (store.equals("hashMap")) {
+            hashMap = new HashMap<>();
+            for (Member member : all) {
+                hashMap.put(member.getId(), member);
+            }
+        } else {
+            longMap = new LongMemberMap();
+            for (Member member : all) {
+                longMap.put(member.getId(), member);
+            }
+        }
+        long after = usedHeap();
+        System.out.printf("%n%s, %d members: %.1f bytes/entry%n", store, members, (double) (after - before) / members);
+
+        Random random = new Random(42);
+        for (int i = 0; i < LOOKUPS; i++) {
+            ids[i] = 1 + random.nextInt(members);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void lookup(Blackhole blackhole) {
+        if (hashMap != null) {
+            for (long id : ids) {
+                blackhole.consume(hashMap.get(id));
+            }
+        } else {
+            for (long id : ids) {
+                blackhole.consume(longMap.get(id));
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,101 @@
+package hello.core.order;
+
+import hello.core.discount.DiscountEngine;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import hello.core.member.MemoryMemberRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+    주문 orders 건을 만드는 처리량. (결과는 초당 배치 수이므로, 초당 주문 수는 orders 를 곱해서 본다)
+    - single : createOrder 를 건마다 호출 (건마다 findById)
+    - batch  : createOrders 한 번 (회원은 findAllById 한 번, PARALLEL_THRESHOLD 이상이면 병렬 계산)
+    회원 10,000 명 중에서 고르므로 한 배치 안에 같은 회원이 여러 번 나온다.
+    lookupCost 는 리포지토리 호출 한 번에 드는 비용(Blackhole.consumeCPU 토큰)이다. 0 이면 HashMap 조회뿐이고,
+    DB 처럼 호출마다 왕복 비용이 있는 저장소를 흉내 내려면 값을 준다. (batch 가 이기는 것은 이 비용을 줄이기 때문이다)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreateOrdersBenchmark {
+
+    private static final int MEMBERS = 10_000;
+
+    @Param({"100", "10000", "1000000"})
+    int orders;
+
+    @Param({"0", "1000"})
+    int lookupCost;
+
+    OrderService orderService;
+    List<OrderRequest> requests;
+
+    @Setup
+    public void setUp() {
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        for (long id = 1; id <= MEMBERS; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 4 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        MemberRepository repository = lookupCost == 0 ? memberRepository : new CostlyMemberRepository(memberRepository, lookupCost);
+        orderService = new OrderServiceImpl(repository, new DiscountEngine());
+
+        Random random = new Random(42);
+        requests = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            requests.add(new OrderRequest(1L + random.nextInt(MEMBERS), "item" + i, 1000 + random.nextInt(100_000)));
+        }
+    }
+
+    @Benchmark
+    public void single(Blackhole blackhole) {
+        for (OrderRequest request : requests) {
+            blackhole.consume(orderService.createOrder(request.getMemberId(), request.getItemName(), request.getItemPrice()));
+        }
+    }
+
+    @Benchmark
+    public List<Order> batch() {
+        return orderService.createOrders(requests);
+    }
+
+    // 호출마다 고정 비용이 드는 리포지토리 (네트워크 왕복 대신)
+    static class CostlyMemberRepository implements MemberRepository {
+        private final MemberRepository delegate;
+        private final int cost;
+
+        CostlyMemberRepository(MemberRepository delegate, int cost) {
+            this.delegate = delegate;
+            this.cost = cost;
+        }
+
+        @Override
+        public void save(Member member) {
+            Blackhole.consumeCPU(cost);
+            delegate.save(member);
+        }
+
+        @Override
+        public Member findById(Long memberId) {
+            Blackhole.consumeCPU(cost);
+            return delegate.findById(memberId);
+        }
+
+        @Override
+        public Map<Long, Member> findAllById(Collection<Long> memberIds) {
+            Blackhole.consumeCPU(cost);
+            return delegate.findAllById(memberIds);
+        }
+    }
+}
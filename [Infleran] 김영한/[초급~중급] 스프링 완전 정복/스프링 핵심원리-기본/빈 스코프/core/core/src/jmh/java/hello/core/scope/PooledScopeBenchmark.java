@@ -0,0 +1,110 @@
+package hello.core.scope;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/*
+    만들기 비싼 빈(64KB 버퍼 + SimpleDateFormat)을 한 번 쓰는 비용.
+    - prototype : SingletonWithPrototypeTest1 의 ClientBean 처럼 ObjectProvider.getObject() 로 매번 새로 만든다. (빈 생성, 의존관계 주입, @PostConstruct)
+    - pooled    : 같은 빈을 @Scope("pooled") 로 두고, 빌려 쓰고 release 로 돌려준다.
+    할당률은 -prof gc 로 같이 본다. 스레드 수가 maxSize(8) 를 넘으면 pooled 는 기다리기 시작하므로 -t 16 처럼 늘려서도 비교한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PooledScopeBenchmark {
+
+    AnnotationConfigApplicationContext context;
+    ObjectProvider<PrototypeFormatter> prototypeProvider;
+    ObjectProvider<PooledFormatter> pooledProvider;
+    PooledScope pooledScope;
+    final Date now = new Date(1_600_000_000_000L);
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        prototypeProvider = context.getBeanProvider(PrototypeFormatter.class);
+        pooledProvider = context.getBeanProvider(PooledFormatter.class);
+        pooledScope = context.getBean(PooledScope.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println();
+        System.out.println("pool = " + pooledScope.stats());
+        context.close();
+    }
+
+    @Benchmark
+    public int prototype() {
+        return prototypeProvider.getObject().format(now);
+    }
+
+    @Benchmark
+    public int pooled() {
+        PooledFormatter formatter = pooledProvider.getObject();
+        try {
+            return formatter.format(now);
+        } finally {
+            pooledScope.release(formatter);
+        }
+    }
+
+    @Configuration
+    static class BenchmarkConfig {
+
+        @Bean
+        static PooledScope pooledScope() {
+            return new PooledScope(8, Duration.ofMinutes(1), Duration.ofSeconds(1));
+        }
+
+        @Bean
+        @org.springframework.context.annotation.Scope("prototype")
+        PrototypeFormatter prototypeFormatter() {
+            return new PrototypeFormatter();
+        }
+
+        @Bean
+        @org.springframework.context.annotation.Scope(PooledScope.SCOPE_NAME)
+        PooledFormatter pooledFormatter() {
+            return new PooledFormatter();
+        }
+    }
+
+    // thread-safe 하지 않은 포맷터와 출력 버퍼. 한 번에 한 스레드만 쓴다.
+    static class Formatter {
+        private byte[] buffer;
+        private SimpleDateFormat dateFormat;
+
+        @PostConstruct
+        public void init() {
+            buffer = new byte[64 * 1024];
+            dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+        }
+
+        public int format(Date date) {
+            byte[] formatted = dateFormat.format(date).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(formatted, 0, buffer, 0, formatted.length);
+            return formatted.length + buffer[0];
+        }
+    }
+
+    static class PrototypeFormatter extends Formatter {
+    }
+
+    static class PooledFormatter extends Formatter {
+    }
+}
@@ -0,0 +1,88 @@
+package hello.core.startup;
+
+import hello.core.AppConfig;
+import hello.core.AutoAppConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/*
+    같은 빈 그래프를 등록하는 방식에 따른 컨테이너 시작(refresh) 시간.
+    - full  : AppConfig 처럼 @Configuration + @Bean 메서드 호출 (CGLIB 프록시)
+    - lite  : LiteAppConfig 처럼 proxyBeanMethods = false, 의존관계는 파라미터
+    - scan  : AutoAppConfig 처럼 @ComponentScan, 인덱스 없이 classpath 의 클래스 파일을 모두 읽는다.
+    - index : @ComponentScan 이지만 META-INF/spring.components 인덱스에서 후보를 읽는다. (build.gradle 의 spring-context-indexer)
+    components 가 0 이면 실제 AppConfig / LiteAppConfig / AutoAppConfig 를, 그 외에는 SyntheticComponents 가 만든 컴포넌트를 사용한다.
+    클래스 로딩까지 포함한 첫 시작을 재기 위해 fork 마다 한 번만 잰다. (SingleShotTime, fork 5번의 평균)
+    빈 개수와 시작 직후 사용 heap 은 fork 마다 출력한다.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 5, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class ContextStartupBenchmark {
+
+    @Param({"0", "1000", "5000", "10000"})
+    int components;
+
+    @Param({"full", "lite", "scan", "index"})
+    String config;
+
+    ClassLoader classLoader;
+    Class<?> configClass;
+    AnnotationConfigApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, ClassNotFoundException {
+        Path classes = components == 0 ? null : SyntheticComponents.generate(components);
+        classLoader = SyntheticComponents.classLoader(classes, config.equals("index"));
+        configClass = components == 0 ? realConfig() : Class.forName(syntheticConfig(), false, classLoader);
+    }
+
+    @Benchmark
+    public AnnotationConfigApplicationContext refresh() {
+        context = new AnnotationConfigApplicationContext();
+        context.setClassLoader(classLoader);
+        context.register(configClass);
+        context.refresh();
+        return context;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        System.out.printf("%n%s, %d components: beans=%d, heap=%.1fMB%n", config, components,
+                context.getBeanDefinitionCount(), memory.getHeapMemoryUsage().getUsed() / 1024.0 / 1024.0);
+        context.close();
+    }
+
+    private Class<?> realConfig() {
+        switch (config) {
+            case "full":
+                return AppConfig.class;
+            case "lite":
+                return LiteAppConfig.class;
+            default:
+                return AutoAppConfig.class;
+        }
+    }
+
+    private String syntheticConfig() {
+        switch (config) {
+            case "full":
+                return SyntheticComponents.CONFIG_PACKAGE + ".FullAppConfig";
+            case "lite":
+                return SyntheticComponents.CONFIG_PACKAGE + ".LiteAppConfig";
+            default:
+                return SyntheticComponents.CONFIG_PACKAGE + ".ScanAppConfig";
+        }
+    }
+}
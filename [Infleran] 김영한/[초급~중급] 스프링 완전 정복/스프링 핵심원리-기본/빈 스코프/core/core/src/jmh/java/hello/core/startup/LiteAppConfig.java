@@ -0,0 +1,42 @@
+package hello.core.startup;
+
+import hello.core.discount.DiscountEngine;
+import hello.core.discount.DiscountPolicy;
+import hello.core.member.MemberRepository;
+import hello.core.member.MemberService;
+import hello.core.member.MemberServiceImpl;
+import hello.core.member.MemoryMemberRepository;
+import hello.core.order.OrderService;
+import hello.core.order.OrderServiceImpl;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+    AppConfig 와 같은 빈을 만들지만 proxyBeanMethods = false 이다.
+    - CGLIB 로 설정 클래스를 상속한 프록시를 만들지 않는다. (AppConfig$$EnhancerBySpringCGLIB 가 없다)
+    - 대신 다른 @Bean 메서드를 직접 호출하면 싱글톤이 보장되지 않으므로, 의존관계는 파라미터로 받는다.
+    hello.core 아래에 두면 CoreApplication 의 component scan 이 AppConfig 와 같은 이름의 빈을 한 번 더 등록하므로, 측정용으로 jmh 소스에 둔다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LiteAppConfig {
+
+    @Bean
+    public MemberService memberService(MemberRepository memberRepository) {
+        return new MemberServiceImpl(memberRepository);
+    }
+
+    @Bean
+    public OrderService orderService(MemberRepository memberRepository, DiscountPolicy discountPolicy) {
+        return new OrderServiceImpl(memberRepository, discountPolicy);
+    }
+
+    @Bean
+    public MemberRepository memberRepository() {
+        return new MemoryMemberRepository();
+    }
+
+    @Bean
+    public DiscountPolicy discountPolicy() {
+        return new DiscountEngine();
+    }
+}
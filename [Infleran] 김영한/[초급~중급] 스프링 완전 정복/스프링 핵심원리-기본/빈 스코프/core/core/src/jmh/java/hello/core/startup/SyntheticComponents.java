@@ -0,0 +1,176 @@
+package hello.core.startup;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+    ContextStartupBenchmark 가 사용하는 가짜 컴포넌트 count 개를 만들어 컴파일한다.
+    - synthetic.components.C00000 ~ : @Component. CHUNK 개씩 묶어서, 묶음 안에서 (i - 1) / 2 번째 컴포넌트를 생성자로 받는다. (의존 깊이는 log2(CHUNK))
+    - synthetic.config.FullAppConfig : AppConfig 처럼 @Bean 메서드가 다른 @Bean 메서드를 호출한다. (CGLIB 프록시 필요)
+    - synthetic.config.LiteAppConfig : proxyBeanMethods = false, 의존관계는 파라미터로 받는다.
+    - synthetic.config.ScanAppConfig : AutoAppConfig 처럼 @ComponentScan
+    - META-INF/spring.components : spring-context-indexer 가 만드는 것과 같은 형식의 인덱스
+    클래스 하나의 상수 풀 한계 때문에 @Bean 메서드는 CHUNK 개씩 여러 설정 클래스로 나누고, @Import 로 묶는다.
+    한 번 만든 결과는 java.io.tmpdir/core-startup/{count} 에 두고 다시 사용한다.
+ */
+final class SyntheticComponents {
+
+    static final String INDEX = "META-INF/spring.components";
+    static final String COMPONENT_PACKAGE = "synthetic.components";
+    static final String CONFIG_PACKAGE = "synthetic.config";
+    private static final int CHUNK = 500;
+
+    private SyntheticComponents() {
+    }
+
+    static Path generate(int count) throws IOException {
+        Path dir = Paths.get(System.getProperty("java.io.tmpdir"), "core-startup", String.valueOf(count));
+        Path classes = dir.resolve("classes");
+        Path done = dir.resolve("done");
+        if (Files.exists(done)) {
+            return classes;
+        }
+        Path sources = dir.resolve("sources");
+        List<Path> files = new ArrayList<>();
+        List<String> index = new ArrayList<>();
+        int chunks = (count + CHUNK - 1) / CHUNK;
+
+        for (int i = 0; i < count; i++) {
+            String name = componentName(i);
+            Integer parent = parent(i);
+            StringBuilder source = new StringBuilder()
+                    .append("package ").append(COMPONENT_PACKAGE).append(";\n\n")
+                    .append("@org.springframework.stereotype.Component\n")
+                    .append("public class ").append(name).append(" {\n");
+            if (parent == null) {
+                source.append("    public ").append(name).append("() {\n    }\n");
+            } else {
+                String parentName = componentName(parent);
+                source.append("    private final ").append(parentName).append(" parent;\n\n")
+                        .append("    public ").append(name).append("(").append(parentName).append(" parent) {\n")
+                        .append("        this.parent = parent;\n    }\n");
+            }
+            source.append("}\n");
+            files.add(write(sources, COMPONENT_PACKAGE, name, source));
+            index.add(COMPONENT_PACKAGE + "." + name + "=org.springframework.stereotype.Component");
+        }
+
+        List<String> fullConfigs = new ArrayList<>();
+        List<String> liteConfigs = new ArrayList<>();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            StringBuilder full = configHeader("Full" + chunk, "@org.springframework.context.annotation.Configuration");
+            StringBuilder lite = configHeader("Lite" + chunk, "@org.springframework.context.annotation.Configuration(proxyBeanMethods = false)");
+            for (int i = chunk * CHUNK; i < Math.min(count, (chunk + 1) * CHUNK); i++) {
+                String type = COMPONENT_PACKAGE + "." + componentName(i);
+                String method = beanName(i);
+                Integer parent = parent(i);
+                full.append("    @org.springframework.context.annotation.Bean\n")
+                        .append("    public ").append(type).append(" ").append(method).append("() {\n")
+                        .append("        return new ").append(type).append("(")
+                        .append(parent == null ? "" : beanName(parent) + "()").append(");\n    }\n\n");
+                lite.append("    @org.springframework.context.annotation.Bean\n")
+                        .append("    public ").append(type).append(" ").append(method).append("(")
+                        .append(parent == null ? "" : COMPONENT_PACKAGE + "." + componentName(parent) + " parent")
+                        .append(") {\n        return new ").append(type).append("(")
+                        .append(parent == null ? "" : "parent").append(");\n    }\n\n");
+            }
+            files.add(write(sources, CONFIG_PACKAGE, "Full" + chunk, full.append("}\n")));
+            files.add(write(sources, CONFIG_PACKAGE, "Lite" + chunk, lite.append("}\n")));
+            fullConfigs.add(CONFIG_PACKAGE + ".Full" + chunk + ".class");
+            liteConfigs.add(CONFIG_PACKAGE + ".Lite" + chunk + ".class");
+        }
+        files.add(write(sources, CONFIG_PACKAGE, "FullAppConfig", configHeader("FullAppConfig",
+                "@org.springframework.context.annotation.Configuration\n"
+                        + "@org.springframework.context.annotation.Import({" + String.join(", ", fullConfigs) + "})").append("}\n")));
+        files.add(write(sources, CONFIG_PACKAGE, "LiteAppConfig", configHeader("LiteAppConfig",
+                "@org.springframework.context.annotation.Configuration(proxyBeanMethods = false)\n"
+                        + "@org.springframework.context.annotation.Import({" + String.join(", ", liteConfigs) + "})").append("}\n")));
+        files.add(write(sources, CONFIG_PACKAGE, "ScanAppConfig", configHeader("ScanAppConfig",
+                "@org.springframework.context.annotation.Configuration\n"
+                        + "@org.springframework.context.annotation.ComponentScan(\"" + COMPONENT_PACKAGE + "\")").append("}\n")));
+
+        compile(files, classes);
+        // 설정 클래스는 인덱스에 넣지 않는다. (AutoAppConfig 처럼 컴포넌트만 scan 한다)
+        Path indexFile = classes.resolve(INDEX);
+        Files.createDirectories(indexFile.getParent());
+        Files.write(indexFile, index, StandardCharsets.UTF_8);
+        Files.createFile(done);
+        return classes;
+    }
+
+    /*
+        classes 를 읽는 ClassLoader. useIndex 가 false 이면 (부모 ClassLoader 것까지) 모든 spring.components 를 숨겨서
+        인덱스 없이 classpath 를 scan 하게 한다.
+     */
+    static ClassLoader classLoader(Path classes, boolean useIndex) {
+        URL[] urls;
+        try {
+            urls = classes == null ? new URL[0] : new URL[]{classes.toUri().toURL()};
+        } catch (MalformedURLException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new URLClassLoader(urls, SyntheticComponents.class.getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                if (!useIndex && INDEX.equals(name)) {
+                    return Collections.emptyEnumeration();
+                }
+                return super.getResources(name);
+            }
+        };
+    }
+
+    private static Integer parent(int i) {
+        int local = i % CHUNK;
+        return local == 0 ? null : i - local + (local - 1) / 2;
+    }
+
+    private static String componentName(int i) {
+        return String.format("C%05d", i);
+    }
+
+    private static String beanName(int i) {
+        return String.format("c%05d", i);
+    }
+
+    private static StringBuilder configHeader(String name, String annotations) {
+        return new StringBuilder()
+                .append("package ").append(CONFIG_PACKAGE).append(";\n\n")
+                .append(annotations).append("\n")
+                .append("public class ").append(name).append(" {\n\n");
+    }
+
+    private static Path write(Path sources, String packageName, String name, CharSequence source) throws IOException {
+        Path file = sources.resolve(packageName.replace('.', '/')).resolve(name + ".java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, source);
+        return file;
+    }
+
+    private static void compile(List<Path> files, Path classes) throws IOException {
+        Files.createDirectories(classes);
+        Path arguments = classes.getParent().resolve("sources.txt");
+        Files.write(arguments, files.stream().map(Path::toString).collect(Collectors.toList()));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        // 생성한 코드에는 annotation processor 가 필요 없다. (classpath 의 lombok, jmh processor 를 끈다)
+        int result = compiler.run(null, null, null, "-proc:none", "-d", classes.toString(),
+                "-cp", System.getProperty("java.class.path"), "@" + arguments);
+        if (result != 0) {
+            throw new IllegalStateException("synthetic 컴포넌트 컴파일 실패: " + result);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package hello.core;
 
+import hello.core.discount.DiscountEngine;
 import hello.core.discount.DiscountPolicy;
-import hello.core.discount.RateDiscountPolicy;
 import hello.core.member.MemberRepository;
 import hello.core.member.MemberService;
 import hello.core.member.MemberServiceImpl;
@@ -43,6 +43,7 @@ public class AppConfig {
     // 구현체 변경 시, 이 부분만 변경하면 됨.
     @Bean
     public DiscountPolicy discountPolicy() {
-        return new RateDiscountPolicy();
+//        return new RateDiscountPolicy();
+        return new DiscountEngine();
     }
 }
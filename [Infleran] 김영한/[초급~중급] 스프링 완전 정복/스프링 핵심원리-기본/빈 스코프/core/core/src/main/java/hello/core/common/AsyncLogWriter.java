@@ -0,0 +1,118 @@
+package hello.core.common;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    요청마다 모은 로그(배치)를 별도 스레드 하나가 출력한다. 요청 스레드는 큐에 넣기만 한다.
+    - 큐는 크기가 정해진 ArrayBlockingQueue(ring buffer)이고, 가득 찼을 때는 overflow 정책을 따른다.
+    - 출력 스레드는 쌓여 있는 배치를 한꺼번에 꺼내서 print 한 번으로 쓴다.
+    - 컨테이너가 종료될 때(@PreDestroy) 남은 배치를 모두 쓰고 끝난다.
+ */
+@Component
+public class AsyncLogWriter {
+
+    // 출력 스레드에게 종료를 알리는 값 (equals 가 아니라 == 로 비교한다)
+    private static final String END = new String("END");
+    private static final int MAX_DRAIN = 64;
+
+    private final BlockingQueue<String> queue;
+    private final LogOverflowPolicy overflowPolicy;
+    private final PrintStream out;
+    private final LongAdder dropped = new LongAdder();
+    private Thread writer;
+
+    @Autowired
+    public AsyncLogWriter(@Value("${log.async.capacity:1024}") int capacity,
+                          @Value("${log.async.overflow:DROP}") LogOverflowPolicy overflowPolicy) {
+        this(capacity, overflowPolicy, System.out);
+    }
+
+    public AsyncLogWriter(int capacity, LogOverflowPolicy overflowPolicy, PrintStream out) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.out = out;
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = new Thread(this::run, "request-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        // 출력 스레드가 멈춰 있어도 종료가 끝나도록 기다리는 시간을 정해둔다.
+        if (queue.offer(END, 5, TimeUnit.SECONDS)) {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * @param batch 줄바꿈으로 끝나는 로그 여러 줄
+     */
+    public void submit(String batch) {
+        if (overflowPolicy == LogOverflowPolicy.BLOCK) {
+            try {
+                queue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.increment();
+            }
+            return;
+        }
+        if (!queue.offer(batch)) {
+            dropped.increment();
+        }
+    }
+
+    // 버퍼가 가득 차서 버린 배치 수
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void run() {
+        List<String> batches = new ArrayList<>(MAX_DRAIN);
+        StringBuilder text = new StringBuilder();
+        while (true) {
+            try {
+                batches.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batches, MAX_DRAIN - 1);
+            boolean end = false;
+            for (String batch : batches) {
+                if (batch == END) {
+                    end = true;
+                } else {
+                    text.append(batch);
+                }
+            }
+            if (text.length() > 0) {
+                out.print(text);
+                out.flush();
+            }
+            if (end) {
+                return;
+            }
+            batches.clear();
+            text.setLength(0);
+        }
+    }
+}
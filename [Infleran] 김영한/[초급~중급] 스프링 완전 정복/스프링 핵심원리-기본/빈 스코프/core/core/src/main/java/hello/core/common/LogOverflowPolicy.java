@@ -0,0 +1,7 @@
+package hello.core.common;
+
+// AsyncLogWriter 의 버퍼가 가득 찼을 때
+public enum LogOverflowPolicy {
+    DROP,   // 그 배치를 버린다. (요청이 기다리지 않는다)
+    BLOCK   // 자리가 날 때까지 요청 스레드가 기다린다. (로그를 잃지 않는다)
+}
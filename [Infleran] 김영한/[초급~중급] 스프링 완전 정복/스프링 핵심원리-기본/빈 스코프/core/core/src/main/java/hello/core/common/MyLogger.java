@@ -8,6 +8,8 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.util.UUID;
 
+// LogDemoController, LogDemoService 는 RequestLogger 를 사용한다. (프록시 / 요청마다 빈 생성 없이)
+// request scope 예제이자 RequestContextBenchmark 의 비교 대상으로 남겨둔다.
 @Component
 @Scope(value = "request", proxyMode = ScopedProxyMode.TARGET_CLASS)
 public class MyLogger {
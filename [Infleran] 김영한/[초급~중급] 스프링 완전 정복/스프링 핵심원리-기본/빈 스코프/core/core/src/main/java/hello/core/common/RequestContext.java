@@ -0,0 +1,67 @@
+package hello.core.common;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    요청 하나의 id 와 URL, 그리고 아직 출력하지 않은 로그. RequestIdFilter 가 요청 시작할 때 현재 스레드에 두고, 끝나면 지운다.
+    request scope 빈(MyLogger)과 달리 프록시, 요청마다 빈 생성 / 소멸 콜백이 없다.
+    id 는 UUID(SecureRandom) 대신 "JVM 마다 한 번 정한 접두어-순번" 이다. (한 서버 안에서 겹치지 않으면 충분)
+ */
+public final class RequestContext {
+
+    private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+    private static final String ID_PREFIX = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final String requestId;
+    private final String requestURL;
+    // RequestLogger 가 모으는 이 요청의 로그. (요청 스레드 하나만 쓰므로 StringBuilder)
+    private final StringBuilder lines = new StringBuilder(256);
+
+    private RequestContext(String requestId, String requestURL) {
+        this.requestId = requestId;
+        this.requestURL = requestURL;
+    }
+
+    // 요청 밖(스레드에 없으면)에서는 null
+    public static RequestContext current() {
+        return CURRENT.get();
+    }
+
+    static RequestContext begin(String requestURL) {
+        RequestContext context = new RequestContext(ID_PREFIX + "-" + Long.toString(SEQUENCE.incrementAndGet(), 36), requestURL);
+        CURRENT.set(context);
+        return context;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public String getRequestURL() {
+        return requestURL;
+    }
+
+    void append(String line) {
+        lines.append(line).append(System.lineSeparator());
+    }
+
+    int bufferedLength() {
+        return lines.length();
+    }
+
+    // 모은 로그를 꺼내고 비운다. (없으면 null)
+    String drain() {
+        if (lines.length() == 0) {
+            return null;
+        }
+        String batch = lines.toString();
+        lines.setLength(0);
+        return batch;
+    }
+}
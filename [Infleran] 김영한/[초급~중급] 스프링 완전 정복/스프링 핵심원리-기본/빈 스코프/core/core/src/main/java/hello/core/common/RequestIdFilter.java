@@ -0,0 +1,36 @@
+package hello.core.common;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// 다른 필터, 컨트롤러보다 먼저 RequestContext 를 열고, 응답이 끝나면 모은 로그를 넘기고 닫는다.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    private final RequestLogger requestLogger;
+
+    public RequestIdFilter(RequestLogger requestLogger) {
+        this.requestLogger = requestLogger;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestContext context = RequestContext.begin(request.getRequestURL().toString());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestContext.end();
+            requestLogger.flush(context);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package hello.core.common;
+
+import org.springframework.stereotype.Component;
+
+/*
+    MyLogger 와 같은 형식이지만, 싱글톤 빈이고 요청 정보는 RequestContext 에서 읽는다.
+    ex) [k3f9a2x1-1b][http://localhost:8080/log-demo] controller test
+    - 요청 안에서 남긴 로그는 RequestContext 에 모아두었다가, 요청이 끝날 때(flush) 한 배치로 AsyncLogWriter 에 넘긴다.
+      요청 스레드는 콘솔에 직접 쓰지 않는다.
+    - 한 요청이 MAX_BUFFERED_CHARS 보다 많이 남기면 그때까지 모은 것을 먼저 넘긴다.
+ */
+@Component
+public class RequestLogger {
+
+    private static final int MAX_BUFFERED_CHARS = 8 * 1024;
+
+    private final AsyncLogWriter writer;
+
+    public RequestLogger(AsyncLogWriter writer) {
+        this.writer = writer;
+    }
+
+    public void log(String message) {
+        RequestContext context = RequestContext.current();
+        if (context == null) {
+            writer.submit("[-][-] " + message + System.lineSeparator());
+            return;
+        }
+        context.append("[" + context.getRequestId() + "]" + "[" + context.getRequestURL() + "] " + message);
+        if (context.bufferedLength() >= MAX_BUFFERED_CHARS) {
+            flush(context);
+        }
+    }
+
+    public void flush(RequestContext context) {
+        String batch = context.drain();
+        if (batch != null) {
+            writer.submit(batch);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package hello.core.discount;
+
+import hello.core.annotation.MainDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/*
+    등급별 할인 규칙(정률, 정액, 상한)을 조합하는 DiscountPolicy.
+    - 규칙은 update 할 때 DiscountTable(int 배열)로 컴파일해 두고, discount 는 배열만 읽는다. (등급마다 if 로 분기하지 않는다)
+    - update 는 새 표를 다 만든 뒤 volatile 참조 하나만 바꾼다.
+      따라서 컨테이너를 다시 띄우지 않고 실행 중에 규칙을 바꿀 수 있고, 계산 중인 요청은 이전 표나 새 표 중 하나만 본다.
+ */
+@Component
+@MainDiscountPolicy
+public class DiscountEngine implements DiscountPolicy {
+
+    private volatile DiscountTable table;
+
+    // 기본 규칙은 RateDiscountPolicy 와 같다. (VIP 10% 할인)
+    public DiscountEngine() {
+        this(List.of(DiscountRule.rate(Grade.VIP, 10)), Stacking.SUM);
+    }
+
+    public DiscountEngine(List<DiscountRule> rules, Stacking stacking) {
+        update(rules, stacking);
+    }
+
+    public void update(List<DiscountRule> rules, Stacking stacking) {
+        table = DiscountTable.compile(rules, stacking);
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        return table.discount(member.getGrade(), price);
+    }
+
+    /**
+     * 대량 재계산용. 배열 전체를 같은 표로 계산한다. (중간에 update 되어도 섞이지 않는다)
+     * @return i 번째 값은 grades[i] 등급으로 prices[i] 를 계산한 할인 금액
+     */
+    public int[] discount(int[] prices, Grade[] grades) {
+        if (prices.length != grades.length) {
+            throw new IllegalArgumentException("prices 와 grades 의 길이가 다릅니다: " + prices.length + ", " + grades.length);
+        }
+        DiscountTable current = table;
+        int[] discounts = new int[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            discounts[i] = current.discount(grades[i], prices[i]);
+        }
+        return discounts;
+    }
+}
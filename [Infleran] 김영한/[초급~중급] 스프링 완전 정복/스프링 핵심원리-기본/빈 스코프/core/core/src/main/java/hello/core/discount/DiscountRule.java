@@ -0,0 +1,70 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+
+/*
+    DiscountEngine 에 넣는 할인 규칙 하나. 한 등급(Grade)에 여러 규칙을 조합할 수 있다.
+    - RATE : 가격의 value% 할인
+    - FIX  : value 원 할인
+    - CAP  : 할인 금액은 최대 value 원
+ */
+public class DiscountRule {
+
+    public enum Type {
+        RATE,
+        FIX,
+        CAP
+    }
+
+    private final Grade grade;
+    private final Type type;
+    private final int value;
+
+    private DiscountRule(Grade grade, Type type, int value) {
+        if (grade == null) {
+            throw new IllegalArgumentException("grade 는 null 일 수 없습니다.");
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException("할인 값은 0 이상이어야 합니다: " + value);
+        }
+        this.grade = grade;
+        this.type = type;
+        this.value = value;
+    }
+
+    public static DiscountRule rate(Grade grade, int percent) {
+        if (percent > 100) {
+            throw new IllegalArgumentException("할인율은 100% 를 넘을 수 없습니다: " + percent);
+        }
+        return new DiscountRule(grade, Type.RATE, percent);
+    }
+
+    public static DiscountRule fix(Grade grade, int amount) {
+        return new DiscountRule(grade, Type.FIX, amount);
+    }
+
+    public static DiscountRule cap(Grade grade, int amount) {
+        return new DiscountRule(grade, Type.CAP, amount);
+    }
+
+    public Grade getGrade() {
+        return grade;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "DiscountRule{" +
+                "grade=" + grade +
+                ", type=" + type +
+                ", value=" + value +
+                '}';
+    }
+}
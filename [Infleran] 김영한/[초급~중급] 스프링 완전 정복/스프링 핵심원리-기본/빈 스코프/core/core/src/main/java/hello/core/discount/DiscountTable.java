@@ -0,0 +1,63 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+
+import java.util.List;
+
+/*
+    DiscountRule 목록을 컴파일한 결과. 등급마다 [할인율, 정액, 상한] 3칸을 Grade.ordinal() 순서로 펼친 int 배열이다.
+    만든 뒤에는 바뀌지 않으므로 여러 스레드가 lock 없이 읽는다.
+ */
+final class DiscountTable {
+
+    private static final int RATE = 0;
+    private static final int FIX = 1;
+    private static final int CAP = 2;
+    private static final int STRIDE = 3;
+
+    private final int[] table;
+    private final boolean best;
+
+    private DiscountTable(int[] table, boolean best) {
+        this.table = table;
+        this.best = best;
+    }
+
+    static DiscountTable compile(List<DiscountRule> rules, Stacking stacking) {
+        boolean best = stacking == Stacking.BEST;
+        int[] table = new int[Grade.values().length * STRIDE];
+        for (int base = 0; base < table.length; base += STRIDE) {
+            table[base + CAP] = Integer.MAX_VALUE;
+        }
+        for (DiscountRule rule : rules) {
+            int base = rule.getGrade().ordinal() * STRIDE;
+            switch (rule.getType()) {
+                case RATE:
+                    // 할인율을 더해도 100% 를 넘지 않는다.
+                    table[base + RATE] = best ? Math.max(table[base + RATE], rule.getValue())
+                            : Math.min(100, table[base + RATE] + rule.getValue());
+                    break;
+                case FIX:
+                    table[base + FIX] = best ? Math.max(table[base + FIX], rule.getValue())
+                            : (int) Math.min(Integer.MAX_VALUE, (long) table[base + FIX] + rule.getValue());
+                    break;
+                case CAP:
+                    // 상한이 여러 개면 가장 낮은 것을 적용한다.
+                    table[base + CAP] = Math.min(table[base + CAP], rule.getValue());
+                    break;
+            }
+        }
+        return new DiscountTable(table, best);
+    }
+
+    int discount(Grade grade, int price) {
+        if (grade == null || price <= 0) {
+            return 0;
+        }
+        int base = grade.ordinal() * STRIDE;
+        long rateDiscount = (long) price * table[base + RATE] / 100;
+        long discount = best ? Math.max(rateDiscount, table[base + FIX]) : rateDiscount + table[base + FIX];
+        // 할인 금액은 상한과 가격을 넘지 않는다.
+        return (int) Math.min(discount, Math.min(table[base + CAP], price));
+    }
+}
@@ -2,12 +2,11 @@ package hello.core.discount;
 
 import hello.core.member.Grade;
 import hello.core.member.Member;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
+// 주 할인 정책(mainDiscountPolicy)은 DiscountEngine 으로 바뀌었다. (RateDiscountPolicy 와 같은 규칙이 기본값)
 @Component
-@Qualifier("mainDiscountPolicy")
 public class RateDiscountPolicy implements DiscountPolicy{
 
     private int discountPercent = 10;
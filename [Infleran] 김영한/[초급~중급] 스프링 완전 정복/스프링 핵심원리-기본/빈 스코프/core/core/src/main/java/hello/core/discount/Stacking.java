@@ -0,0 +1,7 @@
+package hello.core.discount;
+
+// 한 등급에 정률 할인과 정액 할인이 함께 있을 때 어떻게 합칠지
+public enum Stacking {
+    SUM,    // 모두 더한다.
+    BEST    // 가장 큰 할인 하나만 적용한다.
+}
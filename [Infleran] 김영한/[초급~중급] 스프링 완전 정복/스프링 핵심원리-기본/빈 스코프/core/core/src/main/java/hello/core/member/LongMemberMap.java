@@ -0,0 +1,123 @@
+package hello.core.member;
+
+import java.util.concurrent.locks.StampedLock;
+
+/*
+    long id -> Member 를 저장하는 open addressing(linear probing) 해시 테이블.
+    - id 를 long[] 에 그대로 저장하므로 HashMap<Long, Member> 처럼 Long 박싱이나 항목마다 Node 객체가 없다.
+    - 쓰기는 StampedLock 의 write lock 으로 하나씩 한다.
+    - 읽기는 lock 을 잡지 않고(optimistic read) 읽은 뒤, 그 사이에 쓰기가 있었는지 확인한다. (seqlock 과 같은 방식)
+      쓰기와 겹쳤을 때만 read lock 을 잡고 다시 읽는다.
+    - 빈 칸은 values[i] == null 로 구분한다. 회원 삭제는 없으므로 tombstone 도 없다.
+ */
+final class LongMemberMap {
+
+    private static final int INITIAL_CAPACITY = 16;
+    // 채워진 칸이 3/4 를 넘으면 두 배로 늘린다.
+    private static final int MAX_LOAD_PERCENT = 75;
+
+    // keys, values 를 한 객체로 묶어서, 읽는 쪽이 resize 전후의 배열을 섞어 보지 않도록 한다.
+    private static final class Table {
+        final long[] keys;
+        final Member[] values;
+        final int mask;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Member[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private Table table = new Table(INITIAL_CAPACITY);
+    private int size;
+
+    Member get(long key) {
+        long stamp = lock.tryOptimisticRead();
+        Member value = find(table, key);
+        if (lock.validate(stamp)) {
+            return value;
+        }
+        stamp = lock.readLock();
+        try {
+            return find(table, key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void put(long key, Member value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value 는 null 일 수 없습니다.");
+        }
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 100L > (long) table.keys.length * MAX_LOAD_PERCENT) {
+                table = resize(table);
+            }
+            if (insert(table, key, value)) {
+                size++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // 표가 3/4 이상 차지 않으므로 빈 칸을 반드시 만나서 끝난다. (optimistic read 중에 표가 바뀌어도 마찬가지)
+    private static Member find(Table table, long key) {
+        int i = index(key, table.mask);
+        Member value;
+        while ((value = table.values[i]) != null) {
+            if (table.keys[i] == key) {
+                return value;
+            }
+            i = (i + 1) & table.mask;
+        }
+        return null;
+    }
+
+    // 새 key 이면 true
+    private static boolean insert(Table table, long key, Member value) {
+        int i = index(key, table.mask);
+        while (table.values[i] != null) {
+            if (table.keys[i] == key) {
+                table.values[i] = value;
+                return false;
+            }
+            i = (i + 1) & table.mask;
+        }
+        table.keys[i] = key;
+        table.values[i] = value;
+        return true;
+    }
+
+    private static Table resize(Table old) {
+        Table resized = new Table(old.keys.length * 2);
+        for (int i = 0; i < old.keys.length; i++) {
+            if (old.values[i] != null) {
+                insert(resized, old.keys[i], old.values[i]);
+            }
+        }
+        return resized;
+    }
+
+    // 연속된 id 가 연속된 칸에 몰리지 않도록 murmur3 의 fmix64 로 섞는다.
+    private static int index(long key, int mask) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+}
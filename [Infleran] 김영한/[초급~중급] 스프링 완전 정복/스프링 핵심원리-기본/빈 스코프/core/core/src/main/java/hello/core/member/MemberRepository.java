@@ -2,7 +2,13 @@ package hello.core.member;
 
 import hello.core.member.Member;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface MemberRepository {
     void save(Member member);
     Member findById(Long memberId);
+
+    // 없는 회원은 결과 Map 에 들어가지 않는다.
+    Map<Long, Member> findAllById(Collection<Long> memberIds);
 }
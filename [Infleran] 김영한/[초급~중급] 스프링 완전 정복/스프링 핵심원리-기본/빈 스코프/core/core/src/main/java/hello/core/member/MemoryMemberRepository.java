@@ -2,21 +2,42 @@ package hello.core.member;
 
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
 @Component
 public class MemoryMemberRepository implements MemberRepository {
 
-    private static Map<Long, Member> store = new HashMap<>();
+//    private static Map<Long, Member> store = new HashMap<>();
+    // id 를 long 그대로 저장하고, 읽기는 lock 없이 한다. (findById 가 주문 생성마다 호출된다)
+    private static final LongMemberMap store = new LongMemberMap();
 
     @Override
     public void save(Member member) {
+        if (member.getId() == null) {
+            throw new IllegalArgumentException("회원 id 는 null 일 수 없습니다.");
+        }
         store.put(member.getId(), member);
     }
 
     @Override
     public Member findById(Long memberId) {
+        if (memberId == null) {
+            return null;
+        }
         return store.get(memberId);
     }
+
+    @Override
+    public Map<Long, Member> findAllById(Collection<Long> memberIds) {
+        Map<Long, Member> members = new HashMap<>(memberIds.size() * 4 / 3 + 1);
+        for (Long memberId : memberIds) {
+            Member member = findById(memberId);
+            if (member != null) {
+                members.put(memberId, member);
+            }
+        }
+        return members;
+    }
 }
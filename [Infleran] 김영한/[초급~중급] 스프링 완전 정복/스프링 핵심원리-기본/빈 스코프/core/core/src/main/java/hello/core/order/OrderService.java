@@ -1,5 +1,10 @@
 package hello.core.order;
 
+import java.util.List;
+
 public interface OrderService {
     Order createOrder(Long memberId, String itemName, int itemPrice);
+
+    // 여러 주문을 한 번에 만든다. 결과는 requests 와 같은 순서이다.
+    List<Order> createOrders(List<OrderRequest> requests);
 }
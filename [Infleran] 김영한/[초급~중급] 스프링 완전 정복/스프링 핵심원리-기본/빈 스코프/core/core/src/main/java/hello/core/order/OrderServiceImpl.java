@@ -11,10 +11,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
 @Component
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService{
 
+    // 이 건수부터 createOrders 의 할인 계산을 fork-join(common pool)으로 나눠서 한다. (적으면 나누는 비용이 더 크다)
+    static final int PARALLEL_THRESHOLD = 1000;
+
 //    private final MemberRepository memberRepository = new MemoryMemberRepository();
 //    private final DiscountPolicy discountPolicy = new FixDiscountPolicy();
 //    private final DiscountPolicy discountPolicy = new RateDiscountPolicy();
@@ -42,6 +52,40 @@ public class OrderServiceImpl implements OrderService{
         return new Order(memberId, itemName, itemPrice, discountPrice);
     }
 
+    /*
+        회원은 중복을 제거한 id 로 findAllById 한 번에 조회하고, 할인 계산은 건수가 많으면 병렬로 한다.
+        각 주문은 자기 index 자리에 저장하므로 병렬로 계산해도 결과는 요청 순서와 같다.
+     */
+    @Override
+    public List<Order> createOrders(List<OrderRequest> requests) {
+        Set<Long> memberIds = new HashSet<>();
+        for (OrderRequest request : requests) {
+            memberIds.add(request.getMemberId());
+        }
+        Map<Long, Member> members = memberRepository.findAllById(memberIds);
+        // 없는 회원이 있으면 계산을 시작하기 전에 실패한다.
+        if (members.size() != memberIds.size()) {
+            memberIds.removeAll(members.keySet());
+            throw new IllegalArgumentException("존재하지 않는 회원입니다: " + memberIds);
+        }
+
+        Order[] orders = new Order[requests.size()];
+        if (orders.length < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < orders.length; i++) {
+                orders[i] = price(requests.get(i), members);
+            }
+        } else {
+            IntStream.range(0, orders.length).parallel().forEach(i -> orders[i] = price(requests.get(i), members));
+        }
+        return Arrays.asList(orders);
+    }
+
+    private Order price(OrderRequest request, Map<Long, Member> members) {
+        Member member = members.get(request.getMemberId());
+        int discountPrice = discountPolicy.discount(member, request.getItemPrice());
+        return new Order(request.getMemberId(), request.getItemName(), request.getItemPrice(), discountPrice);
+    }
+
     // 테스트 용도
     public MemberRepository getMemberRepository(){
         return memberRepository;
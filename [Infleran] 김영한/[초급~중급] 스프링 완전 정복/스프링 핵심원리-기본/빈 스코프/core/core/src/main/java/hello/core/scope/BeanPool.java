@@ -0,0 +1,196 @@
+package hello.core.scope;
+
+import org.springframework.beans.factory.ObjectFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    PooledScope 의 빈 하나(이름 하나)에 대한 pool.
+    - 빌려준 것(active)과 쉬고 있는 것(idle)을 합쳐 maxSize 개까지만 만든다. 모두 빌려준 상태면 borrowTimeout 까지 기다린다.
+    - idle 은 마지막에 돌려받은 것부터 빌려준다. (최근에 쓴 객체가 캐시에 남아 있을 가능성이 높다)
+    - 새 객체는 lock 밖에서 만든다. (빈 생성이 오래 걸려도 반납을 막지 않도록, 자리만 먼저 잡아둔다)
+ */
+final class BeanPool {
+
+    private static final class Idle {
+        final Object bean;
+        final long returnedAt;
+
+        Idle(Object bean, long returnedAt) {
+            this.bean = bean;
+            this.returnedAt = returnedAt;
+        }
+    }
+
+    private final String beanName;
+    private final int maxSize;
+    private final long borrowTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Deque<Idle> idle = new ArrayDeque<>();
+    // 이 pool 이 만든 객체의 소멸 콜백 (@PreDestroy 등이 없는 빈은 들어가지 않는다)
+    private final Map<Object, Runnable> destructionCallbacks = new IdentityHashMap<>();
+    private int active;
+    private boolean closed;
+
+    private long created;
+    private long borrowed;
+    private long evicted;
+    private long timeouts;
+
+    BeanPool(String beanName, int maxSize, long borrowTimeoutNanos) {
+        this.beanName = beanName;
+        this.maxSize = maxSize;
+        this.borrowTimeoutNanos = borrowTimeoutNanos;
+    }
+
+    Object borrow(ObjectFactory<?> factory) {
+        lock.lock();
+        try {
+            long remaining = borrowTimeoutNanos;
+            while (idle.isEmpty() && active >= maxSize) {
+                if (closed) {
+                    throw new IllegalStateException("pool 이 닫혔습니다: " + beanName);
+                }
+                if (remaining <= 0) {
+                    timeouts++;
+                    throw new PoolExhaustedException(beanName + " pool 의 객체 " + maxSize + "개를 모두 사용 중입니다. ("
+                            + TimeUnit.NANOSECONDS.toMillis(borrowTimeoutNanos) + "ms 대기)");
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            if (closed) {
+                throw new IllegalStateException("pool 이 닫혔습니다: " + beanName);
+            }
+            active++;
+            borrowed++;
+            Idle reusable = idle.pollFirst();
+            if (reusable != null) {
+                return reusable.bean;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(beanName + " pool 에서 기다리는 중 interrupt 되었습니다.", e);
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            Object bean = factory.getObject();
+            lock.lock();
+            try {
+                created++;
+            } finally {
+                lock.unlock();
+            }
+            return bean;
+        } catch (RuntimeException | Error e) {
+            lock.lock();
+            try {
+                active--;
+                released.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    void release(Object bean) {
+        boolean destroy;
+        lock.lock();
+        try {
+            active--;
+            destroy = closed;
+            if (!destroy) {
+                idle.addFirst(new Idle(bean, System.nanoTime()));
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+        // 닫힌 뒤에 돌아온 객체는 바로 소멸시킨다.
+        if (destroy) {
+            destroy(bean);
+        }
+    }
+
+    void registerDestructionCallback(Object bean, Runnable callback) {
+        lock.lock();
+        try {
+            destructionCallbacks.put(bean, callback);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // idleTimeout 보다 오래 쉬고 있는 객체를 소멸시킨다. 오래된 것은 deque 의 뒤쪽에 있다.
+    int evictIdle(long idleTimeoutNanos) {
+        List<Object> expired = new ArrayList<>();
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            Iterator<Idle> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext()) {
+                Idle entry = oldestFirst.next();
+                if (now - entry.returnedAt < idleTimeoutNanos) {
+                    break;
+                }
+                oldestFirst.remove();
+                expired.add(entry.bean);
+            }
+            evicted += expired.size();
+        } finally {
+            lock.unlock();
+        }
+        expired.forEach(this::destroy);
+        return expired.size();
+    }
+
+    // 쉬고 있는 객체는 바로 소멸시키고, 빌려간 객체는 돌아올 때 소멸시킨다.
+    void close() {
+        List<Object> idleBeans = new ArrayList<>();
+        lock.lock();
+        try {
+            closed = true;
+            idle.forEach(entry -> idleBeans.add(entry.bean));
+            idle.clear();
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        idleBeans.forEach(this::destroy);
+    }
+
+    PoolStats stats() {
+        lock.lock();
+        try {
+            return new PoolStats(beanName, maxSize, active, idle.size(), created, borrowed, evicted, timeouts);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void destroy(Object bean) {
+        Runnable callback;
+        lock.lock();
+        try {
+            callback = destructionCallbacks.remove(bean);
+        } finally {
+            lock.unlock();
+        }
+        if (callback != null) {
+            callback.run();
+        }
+    }
+}
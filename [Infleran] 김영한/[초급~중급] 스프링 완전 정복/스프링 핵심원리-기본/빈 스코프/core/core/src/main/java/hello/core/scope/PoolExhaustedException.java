@@ -0,0 +1,12 @@
+package hello.core.scope;
+
+/*
+    pool 의 객체를 모두 빌려줘서 borrowTimeout 동안 기다렸는데도 받지 못했을 때.
+    IllegalStateException 으로 던지면 스프링이 ScopeNotActiveException("스코프가 활성화되지 않았다")으로 감싸버려서 따로 만든다.
+ */
+public class PoolExhaustedException extends RuntimeException {
+
+    public PoolExhaustedException(String message) {
+        super(message);
+    }
+}
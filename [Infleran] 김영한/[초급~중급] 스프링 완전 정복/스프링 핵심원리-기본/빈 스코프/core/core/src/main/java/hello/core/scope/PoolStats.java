@@ -0,0 +1,75 @@
+package hello.core.scope;
+
+/*
+    PooledScope 의 pool 하나의 특정 시점 통계.
+    - created  : 지금까지 만든 객체 수 (borrowed 에 비해 작을수록 많이 재사용한 것이다)
+    - timeouts : 모두 사용 중이라 borrowTimeout 동안 기다리다 실패한 횟수
+ */
+public class PoolStats {
+
+    private final String beanName;
+    private final int maxSize;
+    private final int active;
+    private final int idle;
+    private final long created;
+    private final long borrowed;
+    private final long evicted;
+    private final long timeouts;
+
+    public PoolStats(String beanName, int maxSize, int active, int idle, long created, long borrowed, long evicted, long timeouts) {
+        this.beanName = beanName;
+        this.maxSize = maxSize;
+        this.active = active;
+        this.idle = idle;
+        this.created = created;
+        this.borrowed = borrowed;
+        this.evicted = evicted;
+        this.timeouts = timeouts;
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getBorrowed() {
+        return borrowed;
+    }
+
+    public long getEvicted() {
+        return evicted;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "beanName='" + beanName + '\'' +
+                ", maxSize=" + maxSize +
+                ", active=" + active +
+                ", idle=" + idle +
+                ", created=" + created +
+                ", borrowed=" + borrowed +
+                ", evicted=" + evicted +
+                ", timeouts=" + timeouts +
+                '}';
+    }
+}
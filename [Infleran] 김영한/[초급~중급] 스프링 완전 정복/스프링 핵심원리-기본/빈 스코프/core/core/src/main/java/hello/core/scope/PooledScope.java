@@ -0,0 +1,166 @@
+package hello.core.scope;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.Scope;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    "pooled" 빈 스코프. 만들기 비싸고 thread-safe 하지 않은 빈(버퍼, 파서 등)을 prototype 처럼 매번 만들지 않고 빌려 쓰고 돌려준다.
+    - 이 빈을 컨테이너에 등록하면 스스로 "pooled" 스코프로 등록된다. (BeanFactoryPostProcessor)
+    - @Scope("pooled") 빈을 ObjectProvider.getObject() (또는 Provider.get(), getBean) 로 꺼내면 pool 에서 빌려온다.
+    - 다 쓰면 반드시 release(bean) 으로 돌려줘야 한다. 돌려주지 않으면 maxSize 개를 다 빌려준 뒤 borrowTimeout 후에 PoolExhaustedException 이 난다.
+    - 싱글톤에 바로 주입하면 빌린 채로 돌려주지 않는 것이므로, prototype 과 마찬가지로 ObjectProvider 로 꺼내 쓴다.
+    - idleTimeout 동안 쓰이지 않은 객체는 소멸시킨다. (@PreDestroy 가 호출된다)
+    - 빌려간 객체의 상태는 pool 이 초기화해주지 않는다. 돌려주기 전에 사용하는 쪽에서 정리한다.
+ */
+public class PooledScope implements Scope, BeanFactoryPostProcessor, DisposableBean {
+
+    public static final String SCOPE_NAME = "pooled";
+
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final long borrowTimeoutNanos;
+    private final boolean scheduleEviction;
+
+    private final Map<String, BeanPool> pools = new ConcurrentHashMap<>();
+    // 빌려준 객체 -> 그 객체의 pool (release 할 때 어느 pool 로 돌려줄지 찾는다)
+    private final Map<Object, BeanPool> leases = Collections.synchronizedMap(new IdentityHashMap<>());
+    // 지금 이 스레드가 만들고 있는 빈. 생성 중에 registerDestructionCallback 이 호출되므로, 콜백을 이 빈과 묶어둔다.
+    private final ThreadLocal<List<Runnable>> creating = new ThreadLocal<>();
+    private ScheduledExecutorService evictor;
+
+    public PooledScope() {
+        this(8, Duration.ofMinutes(1), Duration.ofSeconds(1));
+    }
+
+    public PooledScope(int maxSize, Duration idleTimeout, Duration borrowTimeout) {
+        this(maxSize, idleTimeout, borrowTimeout, true);
+    }
+
+    // scheduleEviction 이 false 이면 eviction 스레드를 띄우지 않는다. evictIdle() 을 직접 호출한 때에만 소멸시킨다.
+    public PooledScope(int maxSize, Duration idleTimeout, Duration borrowTimeout, boolean scheduleEviction) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize 는 0보다 커야 합니다: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.borrowTimeoutNanos = borrowTimeout.toNanos();
+        this.scheduleEviction = scheduleEviction;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        beanFactory.registerScope(SCOPE_NAME, this);
+        if (scheduleEviction && idleTimeoutNanos > 0 && evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "pooled-scope-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(this::evictIdle, idleTimeoutNanos, idleTimeoutNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        BeanPool pool = pools.computeIfAbsent(name, beanName -> new BeanPool(beanName, maxSize, borrowTimeoutNanos));
+        // pooled 빈이 다른 pooled 빈에 의존하면 생성이 중첩되므로, 바깥 빈의 목록을 되돌려 놓는다.
+        List<Runnable> outer = creating.get();
+        List<Runnable> callbacks = new ArrayList<>(1);
+        creating.set(callbacks);
+        Object bean;
+        try {
+            bean = pool.borrow(objectFactory);
+        } finally {
+            if (outer == null) {
+                creating.remove();
+            } else {
+                creating.set(outer);
+            }
+        }
+        for (Runnable callback : callbacks) {
+            pool.registerDestructionCallback(bean, callback);
+        }
+        leases.put(bean, pool);
+        return bean;
+    }
+
+    public void release(Object bean) {
+        BeanPool pool = leases.remove(bean);
+        if (pool == null) {
+            throw new IllegalArgumentException("이 pool 에서 빌려간 객체가 아닙니다: " + bean);
+        }
+        pool.release(bean);
+    }
+
+    // pool 을 통째로 버린다. 쉬고 있는 객체는 소멸시키고, 빌려간 객체는 돌아올 때 소멸시킨다.
+    @Override
+    public Object remove(String name) {
+        BeanPool pool = pools.remove(name);
+        if (pool != null) {
+            pool.close();
+        }
+        return null;
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+        List<Runnable> callbacks = creating.get();
+        if (callbacks != null) {
+            callbacks.add(callback);
+        }
+    }
+
+    @Override
+    public Object resolveContextualObject(String key) {
+        return null;
+    }
+
+    @Override
+    public String getConversationId() {
+        return null;
+    }
+
+    // idleTimeout 이 0 이하이면 eviction 을 하지 않는다.
+    public int evictIdle() {
+        if (idleTimeoutNanos <= 0) {
+            return 0;
+        }
+        int evicted = 0;
+        for (BeanPool pool : pools.values()) {
+            evicted += pool.evictIdle(idleTimeoutNanos);
+        }
+        return evicted;
+    }
+
+    public Map<String, PoolStats> stats() {
+        Map<String, PoolStats> stats = new TreeMap<>();
+        pools.forEach((name, pool) -> stats.put(name, pool.stats()));
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        for (String name : new ArrayList<>(pools.keySet())) {
+            remove(name);
+        }
+    }
+}
@@ -1,30 +1,24 @@
 package hello.core.web;
 
-import hello.core.common.MyLogger;
+import hello.core.common.RequestLogger;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 
-import javax.servlet.http.HttpServletRequest;
-
 @Controller
 @RequiredArgsConstructor
 public class LogDemoController {
 
     private final LogDemoService logDemoService;
-    private final MyLogger myLogger;
+//    private final MyLogger myLogger;
+    // 요청 id, URL 은 RequestIdFilter 가 RequestContext 에 넣어두므로 컨트롤러에서 설정하지 않는다.
+    private final RequestLogger requestLogger;
 
     @RequestMapping("log-demo")
     @ResponseBody
-    public String logDemo(HttpServletRequest request){
-        String requestURL = request.getRequestURL().toString();
-
-        System.out.println("myLogger = " + myLogger.getClass());
-        myLogger.setRequestURL(requestURL);
-
-        myLogger.log("controller test");
+    public String logDemo(){
+        requestLogger.log("controller test");
         logDemoService.logic("testId");
         return "OK";
     }
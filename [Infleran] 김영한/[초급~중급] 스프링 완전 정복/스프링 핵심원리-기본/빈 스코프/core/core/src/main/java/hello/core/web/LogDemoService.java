@@ -1,17 +1,17 @@
 package hello.core.web;
 
-import hello.core.common.MyLogger;
+import hello.core.common.RequestLogger;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class LogDemoService {
 
-    private final MyLogger myLogger;
+//    private final MyLogger myLogger;
+    private final RequestLogger requestLogger;
 
     public void logic(String Id) {
-        myLogger.log("service id = " + Id);
+        requestLogger.log("service id = " + Id);
     }
 }
@@ -0,0 +1,45 @@
+package hello.core.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncLogWriterTest {
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Test
+    void 가득_차면_DROP_정책은_버린다() throws InterruptedException {
+        //given
+        // 출력 스레드를 아직 시작하지 않아서 큐가 비워지지 않는다.
+        AsyncLogWriter writer = new AsyncLogWriter(2, LogOverflowPolicy.DROP, new PrintStream(output, true));
+
+        //when
+        writer.submit("a\n");
+        writer.submit("b\n");
+        writer.submit("c\n");
+
+        //then
+        assertThat(writer.getDroppedCount()).isEqualTo(1);
+        writer.start();
+        writer.close();
+        assertThat(output.toString()).isEqualTo("a\nb\n");
+    }
+
+    @Test
+    void 종료할_때_남은_배치를_모두_쓴다() throws InterruptedException {
+        AsyncLogWriter writer = new AsyncLogWriter(4, LogOverflowPolicy.BLOCK, new PrintStream(output, true));
+        writer.start();
+
+        for (int i = 0; i < 100; i++) {
+            writer.submit(i + "\n");
+        }
+        writer.close();
+
+        assertThat(writer.getDroppedCount()).isEqualTo(0);
+        assertThat(output.toString().split("\n")).hasSize(100).startsWith("0", "1").endsWith("99");
+    }
+}
@@ -0,0 +1,55 @@
+package hello.core.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestIdFilterTest {
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    AsyncLogWriter writer = new AsyncLogWriter(16, LogOverflowPolicy.BLOCK, new PrintStream(output, true));
+    RequestLogger requestLogger = new RequestLogger(writer);
+    RequestIdFilter filter = new RequestIdFilter(requestLogger);
+
+    @Test
+    void 요청마다_다른_id_와_URL_을_담는다() throws Exception {
+        List<RequestContext> contexts = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/log-demo");
+            filter.doFilter(request, new MockHttpServletResponse(),
+                    (req, res) -> contexts.add(RequestContext.current()));
+        }
+
+        assertThat(contexts.get(0).getRequestURL()).isEqualTo("http://localhost/log-demo");
+        assertThat(contexts.get(0).getRequestId()).isNotEqualTo(contexts.get(1).getRequestId());
+        // 요청이 끝나면 스레드에서 지운다.
+        assertThat(RequestContext.current()).isNull();
+    }
+
+    @Test
+    void 요청이_끝나면_모은_로그를_한_번에_출력한다() throws Exception {
+        writer.start();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/log-demo");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            requestLogger.log("controller test");
+            requestLogger.log("service id = testId");
+            // 요청 중에는 아직 출력하지 않는다.
+            assertThat(output.size()).isEqualTo(0);
+        });
+        writer.close();
+
+        String[] lines = output.toString().split(System.lineSeparator());
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).endsWith("[http://localhost/log-demo] controller test");
+        assertThat(lines[1]).endsWith("[http://localhost/log-demo] service id = testId");
+    }
+}
@@ -0,0 +1,65 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiscountEngineTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    Member basic = new Member(2L, "memberBASIC", Grade.BASIC);
+
+    @Test
+    @DisplayName("기본 규칙은 RateDiscountPolicy 와 같다")
+    void defaultRules() {
+        DiscountEngine engine = new DiscountEngine();
+        RateDiscountPolicy ratePolicy = new RateDiscountPolicy();
+
+        for (int price : new int[]{0, 1, 999, 10000, 123456}) {
+            assertThat(engine.discount(vip, price)).isEqualTo(ratePolicy.discount(vip, price));
+            assertThat(engine.discount(basic, price)).isEqualTo(ratePolicy.discount(basic, price));
+        }
+    }
+
+    @Test
+    @DisplayName("정률, 정액 할인을 더하고 상한을 넘지 않는다")
+    void stacking() {
+        //given
+        List<DiscountRule> rules = List.of(
+                DiscountRule.rate(Grade.VIP, 10),
+                DiscountRule.fix(Grade.VIP, 1000),
+                DiscountRule.cap(Grade.VIP, 5000),
+                DiscountRule.fix(Grade.BASIC, 500));
+
+        //when
+        DiscountEngine sum = new DiscountEngine(rules, Stacking.SUM);
+        DiscountEngine best = new DiscountEngine(rules, Stacking.BEST);
+
+        //then
+        assertThat(sum.discount(vip, 20000)).isEqualTo(3000);
+        assertThat(sum.discount(vip, 100000)).isEqualTo(5000);
+        assertThat(best.discount(vip, 20000)).isEqualTo(2000);
+        assertThat(best.discount(vip, 5000)).isEqualTo(1000);
+        // 할인 금액은 가격을 넘지 않는다.
+        assertThat(sum.discount(basic, 300)).isEqualTo(300);
+    }
+
+    @Test
+    @DisplayName("update 하면 다음 계산부터 새 규칙이 적용된다")
+    void update() {
+        DiscountEngine engine = new DiscountEngine();
+        int[] prices = {10000, 10000};
+        Grade[] grades = {Grade.VIP, Grade.BASIC};
+        assertThat(engine.discount(prices, grades)).containsExactly(1000, 0);
+
+        engine.update(List.of(DiscountRule.fix(Grade.VIP, 1000), DiscountRule.fix(Grade.BASIC, 100)), Stacking.SUM);
+
+        assertThat(engine.discount(prices, grades)).containsExactly(1000, 100);
+        assertThat(engine.discount(vip, 20000)).isEqualTo(1000);
+    }
+}
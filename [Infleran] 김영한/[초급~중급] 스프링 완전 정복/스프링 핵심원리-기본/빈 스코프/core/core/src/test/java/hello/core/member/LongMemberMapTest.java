@@ -0,0 +1,62 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongMemberMapTest {
+
+    @Test
+    void putAndGet() {
+        //given
+        LongMemberMap map = new LongMemberMap();
+
+        //when
+        // 처음 크기(16)보다 많이 넣어서 resize 를 여러 번 거친다.
+        for (long id = -500; id < 10_000; id++) {
+            map.put(id, new Member(id, "member" + id, Grade.BASIC));
+        }
+        Member vip = new Member(0L, "memberVIP", Grade.VIP);
+        map.put(0L, vip);
+
+        //then
+        assertThat(map.size()).isEqualTo(10_500);
+        assertThat(map.get(0L)).isSameAs(vip);
+        for (long id = -500; id < 10_000; id++) {
+            assertThat(map.get(id).getId()).isEqualTo(id);
+        }
+        assertThat(map.get(10_000L)).isNull();
+        assertThat(map.get(Long.MIN_VALUE)).isNull();
+    }
+
+    @Test
+    void 쓰는_중에도_저장된_회원은_항상_찾는다() throws InterruptedException {
+        LongMemberMap map = new LongMemberMap();
+        map.put(1L, new Member(1L, "memberA", Grade.VIP));
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                Member member = map.get(1L);
+                if (member == null || member.getId() != 1L) {
+                    failure.set("member = " + member);
+                }
+            }
+        });
+        reader.start();
+
+        // 읽는 동안 resize 가 여러 번 일어난다.
+        for (long id = 2; id < 200_000; id++) {
+            map.put(id, new Member(id, "member" + id, Grade.BASIC));
+        }
+        done.set(true);
+        reader.join();
+
+        assertThat(failure.get()).isNull();
+        assertThat(map.get(199_999L).getId()).isEqualTo(199_999L);
+    }
+}
@@ -6,6 +6,12 @@ import hello.core.member.Member;
 import hello.core.member.MemoryMemberRepository;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,4 +27,49 @@ class OrderServiceImplTest {
         assertThat(order.getDiscountPrice()).isEqualTo(1000);
     }
 
+    @Test
+    void createOrders(){
+        //given
+        AtomicInteger batchLookups = new AtomicInteger();
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository() {
+            @Override
+            public Map<Long, Member> findAllById(Collection<Long> memberIds) {
+                batchLookups.incrementAndGet();
+                assertThat(memberIds).hasSize(2);
+                return super.findAllById(memberIds);
+            }
+        };
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        memberRepository.save(new Member(2L, "memberB", Grade.BASIC));
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new FixDiscountPolicy());
+
+        // 병렬로 계산하는 건수까지
+        List<OrderRequest> requests = new ArrayList<>();
+        for (int i = 0; i < OrderServiceImpl.PARALLEL_THRESHOLD * 2; i++) {
+            requests.add(new OrderRequest(i % 2 == 0 ? 1L : 2L, "item" + i, 10000 + i));
+        }
+
+        //when
+        List<Order> orders = orderService.createOrders(requests);
+
+        //then
+        assertThat(batchLookups.get()).isEqualTo(1);
+        assertThat(orders).hasSize(requests.size());
+        for (int i = 0; i < orders.size(); i++) {
+            assertThat(orders.get(i).getItemName()).isEqualTo("item" + i);
+            assertThat(orders.get(i).getDiscountPrice()).isEqualTo(i % 2 == 0 ? 1000 : 0);
+        }
+    }
+
+    @Test
+    void createOrders_없는_회원(){
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(1L, "name", Grade.VIP));
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new FixDiscountPolicy());
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.createOrders(List.of(
+                new OrderRequest(1L, "itemA", 10000),
+                new OrderRequest(-1L, "itemB", 10000))));
+    }
+
 }
\ No newline at end of file
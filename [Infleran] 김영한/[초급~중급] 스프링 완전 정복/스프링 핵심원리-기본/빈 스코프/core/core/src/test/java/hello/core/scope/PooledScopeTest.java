@@ -0,0 +1,165 @@
+package hello.core.scope;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PooledScopeTest {
+
+    @Test
+    void 돌려준_객체를_다시_빌려준다() {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(PooledConfig.class);
+
+        ClientBean clientBean = ac.getBean(ClientBean.class);
+        // prototype 이었다면 매번 새로 만들어서 1 이다.
+        assertThat(clientBean.logic()).isEqualTo(1);
+        assertThat(clientBean.logic()).isEqualTo(2);
+
+        PoolStats stats = ac.getBean(PooledScope.class).stats().get("pooledBean");
+        assertThat(stats.getCreated()).isEqualTo(1);
+        assertThat(stats.getBorrowed()).isEqualTo(2);
+        assertThat(stats.getActive()).isEqualTo(0);
+        assertThat(stats.getIdle()).isEqualTo(1);
+        ac.close();
+    }
+
+    @Test
+    void 모두_빌려주면_기다리다_실패한다() {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(PooledConfig.class);
+        ObjectProvider<PooledBean> provider = ac.getBeanProvider(PooledBean.class);
+        PooledScope scope = ac.getBean(PooledScope.class);
+
+        PooledBean first = provider.getObject();
+        PooledBean second = provider.getObject();
+        assertThat(first).isNotSameAs(second);
+        assertThatThrownBy(provider::getObject).isInstanceOf(PoolExhaustedException.class);
+
+        // 다른 스레드가 돌려주면 기다리던 스레드가 그 객체를 받는다.
+        CompletableFuture<PooledBean> waiting = CompletableFuture.supplyAsync(provider::getObject);
+        scope.release(first);
+        assertThat(waiting.join()).isSameAs(first);
+
+        PoolStats stats = scope.stats().get("pooledBean");
+        assertThat(stats.getCreated()).isEqualTo(2);
+        assertThat(stats.getTimeouts()).isEqualTo(1);
+        assertThat(stats.getActive()).isEqualTo(2);
+        ac.close();
+    }
+
+    @Test
+    void 오래_쉬고_있는_객체는_소멸시킨다() throws InterruptedException {
+        // eviction 스레드가 먼저 소멸시키지 않도록, evictIdle() 을 직접 호출할 때만 소멸시키는 scope 를 쓴다.
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(ManualEvictionConfig.class);
+        ObjectProvider<PooledBean> provider = ac.getBeanProvider(PooledBean.class);
+        PooledScope scope = ac.getBean(PooledScope.class);
+        PooledBean.destroyed.set(0);
+
+        PooledBean bean = provider.getObject();
+        scope.release(bean);
+        assertThat(scope.evictIdle()).isEqualTo(0);
+
+        Thread.sleep(300);
+        assertThat(scope.evictIdle()).isEqualTo(1);
+        assertThat(PooledBean.destroyed.get()).isEqualTo(1);
+        assertThat(provider.getObject()).isNotSameAs(bean);
+
+        // 컨테이너를 닫으면 빌려간 객체도 돌아올 때 소멸시킨다.
+        PooledBean borrowed = provider.getObject();
+        ac.close();
+        scope.release(borrowed);
+        assertThat(PooledBean.destroyed.get()).isEqualTo(2);
+    }
+
+    @Test
+    void 빌려간_객체가_아니면_돌려받지_않는다() {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(PooledConfig.class);
+        PooledScope scope = ac.getBean(PooledScope.class);
+
+        assertThatThrownBy(() -> scope.release(new PooledBean())).isInstanceOf(IllegalArgumentException.class);
+        ac.close();
+    }
+
+    @Configuration
+    static class PooledConfig {
+
+        // BeanFactoryPostProcessor 이므로 static 으로 등록한다.
+        @Bean
+        static PooledScope pooledScope() {
+            return new PooledScope(2, Duration.ofMillis(200), Duration.ofMillis(100));
+        }
+
+        @Bean
+        @Scope(PooledScope.SCOPE_NAME)
+        PooledBean pooledBean() {
+            return new PooledBean();
+        }
+
+        @Bean
+        ClientBean clientBean() {
+            return new ClientBean();
+        }
+    }
+
+    @Configuration
+    static class ManualEvictionConfig {
+
+        @Bean
+        static PooledScope pooledScope() {
+            return new PooledScope(2, Duration.ofMillis(200), Duration.ofMillis(100), false);
+        }
+
+        @Bean
+        @Scope(PooledScope.SCOPE_NAME)
+        PooledBean pooledBean() {
+            return new PooledBean();
+        }
+    }
+
+    static class ClientBean {
+        @Autowired
+        private ObjectProvider<PooledBean> provider;
+        @Autowired
+        private PooledScope pooledScope;
+
+        public int logic() {
+            PooledBean pooledBean = provider.getObject();
+            try {
+                pooledBean.addCount();
+                return pooledBean.getCount();
+            } finally {
+                pooledScope.release(pooledBean);
+            }
+        }
+    }
+
+    static class PooledBean {
+        static final AtomicInteger destroyed = new AtomicInteger();
+
+        private int count = 0;
+
+        public void addCount() {
+            count++;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        @PreDestroy
+        public void destroy() {
+            destroyed.incrementAndGet();
+        }
+    }
+}